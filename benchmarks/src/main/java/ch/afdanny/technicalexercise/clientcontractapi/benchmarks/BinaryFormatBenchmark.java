@@ -0,0 +1,65 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs CBOR (Accept: application/cbor) for an active-contracts listing: encoding on the API side,
+ * decoding on the consumer side. Payload sizes are printed once per trial.
+ * Mappers are built like Spring MVC builds the ones of its converters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"20", "1000"})
+    int contracts;
+
+    @Param({"json", "cbor"})
+    String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ContractResponse> list;
+    private byte[] encoded;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = format.equals("cbor")
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        CollectionType type = mapper.getTypeFactory().constructCollectionType(List.class, ContractResponse.class);
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+        list = Fixtures.contractResponses(contracts);
+        encoded = writer.writeValueAsBytes(list);
+        System.out.printf("%n%s, %d contracts: %,d bytes%n", format, contracts, encoded.length);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        out.reset();
+        writer.writeValue(out, list);
+        return out.size();
+    }
+
+    @Benchmark
+    public List<ContractResponse> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,84 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * CPU cost of compressing an active-contracts listing with the codings of app.compression,
+ * at the configured and at higher levels. The compressed size of each variant, and the time
+ * it saves on the wire, are printed once per trial: compare them with the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"20", "1000", "10000"})
+    int contracts;
+
+    /** coding-level, gzip-1 and zstd-1 being the defaults of application.yml */
+    @Param({"gzip-1", "gzip-6", "zstd-1", "zstd-3", "zstd-9"})
+    String codec;
+
+    private byte[] json;
+    private int level;
+    private boolean zstd;
+    private Deflater deflater;
+    private final byte[] deflateBuffer = new byte[8 * 1024];
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        json = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ContractResponse.class))
+                .writeValueAsBytes(Fixtures.contractResponses(contracts));
+        zstd = codec.startsWith("zstd");
+        level = Integer.parseInt(codec.substring(codec.indexOf('-') + 1));
+        deflater = new Deflater(level, true); // pooled and reset per response, as in PooledGzipOutputStream
+
+        int compressed = compress();
+        System.out.printf("%n%s, %d contracts: %,d -> %,d bytes (x%.1f), saves %.2f ms at 10 Mbit/s, %.3f ms at 100 Mbit/s%n",
+                codec, contracts, json.length, compressed, (double) json.length / compressed,
+                transferMillis(json.length - compressed, 10), transferMillis(json.length - compressed, 100));
+    }
+
+    @TearDown
+    public void tearDown() {
+        deflater.end();
+    }
+
+    @Benchmark
+    public int compress() throws IOException {
+        out.reset();
+        if (zstd) {
+            try (var zstdOut = new ZstdOutputStreamNoFinalizer(out, RecyclingBufferPool.INSTANCE).setLevel(level)) {
+                zstdOut.write(json);
+            }
+        } else {
+            deflater.reset();
+            deflater.setInput(json);
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(deflateBuffer, 0, deflater.deflate(deflateBuffer));
+            }
+        }
+        return out.size();
+    }
+
+    private static double transferMillis(long bytes, int megabitsPerSecond) {
+        return bytes * 8 / (megabitsPerSecond * 1_000_000.0) * 1000;
+    }
+}
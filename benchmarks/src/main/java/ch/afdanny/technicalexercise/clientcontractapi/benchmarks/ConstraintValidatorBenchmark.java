@@ -0,0 +1,49 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.validation.CompanyIdentifierValidator;
+import ch.afdanny.technicalexercise.clientcontractapi.validation.PhoneValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Regex-based checks ({@code @Pattern}) vs. the character-scanning validators,
+ * on valid inputs (the common case for create traffic).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstraintValidatorBenchmark {
+
+    private final Pattern phonePattern = Pattern.compile("^\\+?[0-9]{8,15}$");
+    private final Pattern companyIdentifierPattern = Pattern.compile("^[A-Za-z]{3}-\\d{3}$");
+    private final PhoneValidator phoneValidator = new PhoneValidator();
+    private final CompanyIdentifierValidator companyIdentifierValidator = new CompanyIdentifierValidator();
+
+    private String phone = "+41791234567";
+    private String companyIdentifier = "acm-123";
+
+    @Benchmark
+    public boolean phoneRegex() {
+        return phonePattern.matcher(phone).matches();
+    }
+
+    @Benchmark
+    public boolean phoneScan() {
+        return phoneValidator.isValid(phone, null);
+    }
+
+    @Benchmark
+    public boolean companyIdentifierRegex() {
+        return companyIdentifierPattern.matcher(companyIdentifier).matches();
+    }
+
+    @Benchmark
+    public boolean companyIdentifierScan() {
+        return companyIdentifierValidator.isValid(companyIdentifier, null);
+    }
+}
@@ -0,0 +1,66 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.request.CreatePersonClientRequest;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.GlobalExceptionHandler;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GlobalExceptionHandler} rendering: building the {@code ErrorResponse} and writing it as JSON.
+ * The "throwing" variants include the cost of creating the exception (stack trace capture).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorRenderingBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private ObjectWriter writer;
+    private NotFoundException notFound;
+    private MethodArgumentNotValidException invalid;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        notFound = new NotFoundException("Client not found: 11111111-1111-1111-1111-111111111111");
+
+        var target = new BeanPropertyBindingResult(null, "createPersonClientRequest");
+        target.addError(new FieldError("createPersonClientRequest", "email", "must be a well-formed email address"));
+        target.addError(new FieldError("createPersonClientRequest", "phone",
+                "Phone number must be in international format (e.g. +41791234567)"));
+        var parameter = new MethodParameter(
+                ErrorRenderingBenchmark.class.getDeclaredMethod("endpoint", CreatePersonClientRequest.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, target);
+    }
+
+    @Benchmark
+    public byte[] renderNotFound() throws JsonProcessingException {
+        return writer.writeValueAsBytes(handler.handleNotFound(notFound).getBody());
+    }
+
+    @Benchmark
+    public byte[] throwAndRenderNotFound() throws JsonProcessingException {
+        var ex = new NotFoundException("Client not found: 11111111-1111-1111-1111-111111111111");
+        return writer.writeValueAsBytes(handler.handleNotFound(ex).getBody());
+    }
+
+    @Benchmark
+    public byte[] renderValidationErrors() throws JsonProcessingException {
+        return writer.writeValueAsBytes(handler.handleValidationErrors(invalid).getBody());
+    }
+
+    @SuppressWarnings("unused") // only used as MethodParameter source
+    private void endpoint(CreatePersonClientRequest request) {}
+}
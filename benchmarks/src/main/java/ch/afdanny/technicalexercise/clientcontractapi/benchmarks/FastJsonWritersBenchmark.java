@@ -0,0 +1,81 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.json.ResponseJsonWriters;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson databind vs. the hand-written {@link ResponseJsonWriters} (app.json.fast-writers.enabled),
+ * both streaming into the same reused buffer, as the HTTP converters do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastJsonWritersBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    private ObjectWriter contractsWriter;
+    private ObjectWriter clientWriter;
+    private JsonFactory factory;
+    private List<ContractResponse> contracts;
+    private ClientResponse person;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        contractsWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ContractResponse.class));
+        clientWriter = mapper.writerFor(ClientResponse.class);
+        factory = mapper.getFactory();
+        contracts = Fixtures.contractResponses(pageSize);
+        person = Fixtures.personResponse();
+    }
+
+    @Benchmark
+    public int jacksonContractPage() throws IOException {
+        out.reset();
+        contractsWriter.writeValue(out, contracts);
+        return out.size();
+    }
+
+    @Benchmark
+    public int fastContractPage() throws IOException {
+        out.reset();
+        try (JsonGenerator g = factory.createGenerator(out)) {
+            ResponseJsonWriters.writeContracts(g, contracts);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int jacksonPersonClient() throws IOException {
+        out.reset();
+        clientWriter.writeValue(out, person);
+        return out.size();
+    }
+
+    @Benchmark
+    public int fastPersonClient() throws IOException {
+        out.reset();
+        try (JsonGenerator g = factory.createGenerator(out)) {
+            ResponseJsonWriters.writeClient(g, person);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,93 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CompanyClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.PersonClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic sample data shared by the in-memory benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static PersonClient person() {
+        return PersonClient.builder()
+                .id(UUID.fromString("11111111-1111-1111-1111-111111111111"))
+                .name("Alice Martin")
+                .email("alice.martin@test.ch")
+                .phone("+41791234567")
+                .type(ClientType.PERSON)
+                .birthdate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    static CompanyClient company() {
+        return CompanyClient.builder()
+                .id(UUID.fromString("22222222-2222-2222-2222-222222222222"))
+                .name("Acme SA")
+                .email("contact@acme.ch")
+                .phone("+41210000000")
+                .type(ClientType.COMPANY)
+                .companyIdentifier("acm-123")
+                .build();
+    }
+
+    static Contract contract(PersonClient client, int i) {
+        return Contract.builder()
+                .id(new UUID(0L, i))
+                .client(client)
+                .startDate(LocalDate.of(2024, 1, 1).plusDays(i))
+                .endDate(i % 3 == 0 ? null : LocalDate.of(2030, 1, 1).plusDays(i))
+                .costAmount(BigDecimal.valueOf(100_00L + i, 2))
+                .lastUpdateDate(LocalDate.of(2024, 1, 1))
+                .build();
+    }
+
+    static List<ContractResponse> contractResponses(int size) {
+        List<ContractResponse> out = new ArrayList<>(size);
+        UUID clientId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        for (int i = 0; i < size; i++) {
+            out.add(new ContractResponse(
+                    new UUID(0L, i),
+                    clientId,
+                    LocalDate.of(2024, 1, 1).plusDays(i),
+                    i % 3 == 0 ? null : LocalDate.of(2030, 1, 1).plusDays(i),
+                    BigDecimal.valueOf(100_00L + i, 2)));
+        }
+        return out;
+    }
+
+    static ClientResponse personResponse() {
+        var r = new PersonClientResponse();
+        r.id = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        r.name = "Alice Martin";
+        r.email = "alice.martin@test.ch";
+        r.phone = "+41791234567";
+        r.type = "person";
+        r.birthdate = LocalDate.of(1990, 1, 1);
+        return r;
+    }
+
+    static ClientResponse companyResponse() {
+        var r = new CompanyClientResponse();
+        r.id = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        r.name = "Acme SA";
+        r.email = "contact@acme.ch";
+        r.phone = "+41210000000";
+        r.type = "company";
+        r.companyIdentifier = "acm-123";
+        return r;
+    }
+}
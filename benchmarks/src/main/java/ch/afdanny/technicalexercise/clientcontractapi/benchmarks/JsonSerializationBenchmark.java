@@ -0,0 +1,73 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the response DTOs, using an ObjectMapper configured
+ * like Spring Boot's (JavaTimeModule, dates as ISO strings).
+ * Covers the polymorphic {@link ClientResponse} hierarchy (type id from an existing property).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectReader clientReader;
+    private ClientResponse person;
+    private ClientResponse company;
+    private List<ContractResponse> contracts;
+    private byte[] personJson;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writer();
+        clientReader = mapper.readerFor(ClientResponse.class);
+        person = Fixtures.personResponse();
+        company = Fixtures.companyResponse();
+        contracts = Fixtures.contractResponses(pageSize);
+        // the mapper emits lower-case type ids, the subtype names are upper-case
+        personJson = mapper.writeValueAsString(person)
+                .replace("\"person\"", "\"PERSON\"")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writePersonClient() throws JsonProcessingException {
+        return writer.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public byte[] writeCompanyClient() throws JsonProcessingException {
+        return writer.writeValueAsBytes(company);
+    }
+
+    @Benchmark
+    public byte[] writeContractPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(contracts);
+    }
+
+    @Benchmark
+    public ClientResponse readPersonClient() throws IOException {
+        return clientReader.readValue(personJson);
+    }
+}
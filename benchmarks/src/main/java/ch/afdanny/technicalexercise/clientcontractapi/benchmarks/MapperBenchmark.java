@@ -0,0 +1,68 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ClientMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ClientMapperImpl;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapperImpl;
+import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity -> DTO mapping, per entity and for a page of contracts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    private final ClientMapper clientMapper = new ClientMapperImpl();
+    private final ContractMapper contractMapper = new ContractMapperImpl();
+
+    private PersonClient person;
+    private CompanyClient company;
+    private List<Contract> contracts;
+
+    @Setup
+    public void setup() {
+        person = Fixtures.person();
+        company = Fixtures.company();
+        contracts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            contracts.add(Fixtures.contract(person, i));
+        }
+    }
+
+    @Benchmark
+    public ClientResponse personToResponse() {
+        return clientMapper.toPersonResponse(person);
+    }
+
+    @Benchmark
+    public ClientResponse companyToResponse() {
+        return clientMapper.toCompanyResponse(company);
+    }
+
+    @Benchmark
+    public ContractResponse contractToResponse() {
+        return contractMapper.toResponse(contracts.get(0));
+    }
+
+    @Benchmark
+    public List<ContractResponse> contractPageToResponses() {
+        return contracts.stream().map(contractMapper::toResponse).toList();
+    }
+}
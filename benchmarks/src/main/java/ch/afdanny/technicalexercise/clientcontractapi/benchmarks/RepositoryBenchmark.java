@@ -0,0 +1,146 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.ClientContractApiApplication;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service read paths against a throw-away PostgreSQL (Testcontainers, Docker required).
+ * The schema comes from the Liquibase changelog; data is seeded with generate_series so that
+ * each client owns {@code contractsPerClient} contracts, one third of them already ended.
+ * The application context is started without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"10000"})
+    int clients;
+
+    @Param({"20"})
+    int contractsPerClient;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private ClientRepository clientRepository;
+    private ContractRepository contractRepository;
+    private ClientService clientService;
+    private ContractService contractService;
+    private UUID[] clientIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(ClientContractApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.profiles.active=bench",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--logging.level.ch.afdanny.technicalexercise.clientcontractapi=WARN"
+                );
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        clientRepository = context.getBean(ClientRepository.class);
+        contractRepository = context.getBean(ContractRepository.class);
+        clientService = context.getBean(ClientService.class);
+        contractService = context.getBean(ContractService.class);
+        clientIds = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM client", UUID.class)
+                .toArray(UUID[]::new);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("""
+                INSERT INTO client (id, name, email, phone, type)
+                SELECT md5('client-' || g)::uuid, 'Client ' || g, 'client' || g || '@bench.ch',
+                       '+4179' || lpad(g::text, 7, '0'), 'PERSON'
+                  FROM generate_series(1, ?) g
+                """, clients);
+        jdbc.update("""
+                INSERT INTO person_client (id, birthdate)
+                SELECT id, DATE '1960-01-01' + (abs(hashtext(id::text)) % 15000)
+                  FROM client
+                """);
+        jdbc.update("""
+                INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, last_update_date)
+                SELECT md5(c.id::text || '-' || g)::uuid, c.id,
+                       CURRENT_DATE - 1000 + g,
+                       CASE g % 3 WHEN 0 THEN CURRENT_DATE - 10
+                                  WHEN 1 THEN NULL
+                                  ELSE CURRENT_DATE + 365 END,
+                       round((random() * 10000)::numeric, 2) + 1,
+                       now()
+                  FROM client c, generate_series(1, ?) g
+                """, contractsPerClient);
+        jdbc.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) context.close();
+        if (postgres != null) postgres.stop();
+    }
+
+    private UUID randomClient() {
+        return clientIds[ThreadLocalRandom.current().nextInt(clientIds.length)];
+    }
+
+    @Benchmark
+    public Optional<Client> findActiveById() {
+        return clientRepository.findActiveById(randomClient());
+    }
+
+    @Benchmark
+    public List<Contract> findActiveContractsByClient() {
+        return contractRepository.findActiveContractsByClient(randomClient(), LocalDate.now());
+    }
+
+    @Benchmark
+    public BigDecimal sumActiveCostByClient() {
+        return contractRepository.sumActiveCostByClient(randomClient(), LocalDate.now());
+    }
+
+    @Benchmark
+    public Page<Contract> findByClientIdFirstPage() {
+        return contractRepository.findByClientId(randomClient(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Client serviceReadActive() {
+        return clientService.readActive(randomClient());
+    }
+
+    @Benchmark
+    public BigDecimal serviceSumActiveCost() {
+        return contractService.sumActiveCost(randomClient());
+    }
+}
@@ -0,0 +1,69 @@
+package ch.afdanny.technicalexercise.clientcontractapi.benchmarks;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.request.CreateCompanyClientRequest;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.request.CreatePersonClientRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of the create requests ({@code @Phone}, {@code @Email}, {@code @Pattern}),
+ * for valid payloads and for payloads violating every format constraint (message interpolation included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+
+    private final CreatePersonClientRequest validPerson = new CreatePersonClientRequest(
+            "Alice Martin", "alice.martin@test.ch", "+41791234567", LocalDate.of(1990, 1, 1));
+    private final CreatePersonClientRequest invalidPerson = new CreatePersonClientRequest(
+            "Alice Martin", "not-an-email", "079 123 45 67", LocalDate.of(1990, 1, 1));
+    private final CreateCompanyClientRequest validCompany = new CreateCompanyClientRequest(
+            "Acme SA", "contact@acme.ch", "+41210000000", "acm-123");
+    private final CreateCompanyClientRequest invalidCompany = new CreateCompanyClientRequest(
+            "Acme SA", "contact@", "+41-21", "ACME123");
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreatePersonClientRequest>> validPersonRequest() {
+        return validator.validate(validPerson);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreatePersonClientRequest>> invalidPersonRequest() {
+        return validator.validate(invalidPerson);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateCompanyClientRequest>> validCompanyRequest() {
+        return validator.validate(validCompany);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateCompanyClientRequest>> invalidCompanyRequest() {
+        return validator.validate(invalidCompany);
+    }
+}
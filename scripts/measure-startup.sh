@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Time-to-first-request of the packaged application, default startup vs fast-startup
+# (extracted jar + CDS archive + AOT + profile "fast-startup").
+#
+# Usage: scripts/measure-startup.sh <exec-jar> <extracted-dir> [runs]
+# Needs a reachable PostgreSQL (make db-up); connection taken from DB_HOST/DB_PORT/DB_NAME/DB_USER/DB_PASSWORD.
+set -euo pipefail
+
+EXEC_JAR=$1
+STARTUP_DIR=$2
+RUNS=${3:-3}
+PORT=${STARTUP_PORT:-18080}
+JAVA=${JAVA:-java}
+
+export DB_HOST=${DB_HOST:-localhost} DB_PORT=${DB_PORT:-5433} DB_NAME=${DB_NAME:-client_contract_db}
+export DB_USER=${DB_USER:-postgres} DB_PASSWORD=${DB_PASSWORD:-postgres}
+
+# Any HTTP answer from a controller counts (404 for an unknown client): the hot path is up.
+URL="http://localhost:${PORT}/api/v1/clients/00000000-0000-0000-0000-000000000000"
+
+now_ms() { date +%s%3N; }
+
+# $1: label, rest: java arguments. Prints the time-to-first-request in ms.
+measure() {
+  local label=$1; shift
+  local log="${STARTUP_DIR}/${label}.log"
+  local start; start=$(now_ms)
+  # schema validation is left out of both runs: only the startup mechanics are compared
+  "$JAVA" "$@" --server.port="$PORT" --logging.file.name= --spring.jpa.hibernate.ddl-auto=none >"$log" 2>&1 &
+  local pid=$!
+  local status
+  until status=$(curl -s -o /dev/null -w '%{http_code}' "$URL"); do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "[$label] application exited before serving a request, see $log" >&2
+      tail -n 20 "$log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  local elapsed=$(( $(now_ms) - start ))
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  if [[ $status != 404 ]]; then
+    echo "[$label] expected 404 from $URL, got $status, see $log" >&2
+    exit 1
+  fi
+  echo "$elapsed"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+
+APP_JAR=$(ls "$STARTUP_DIR"/*.jar | head -n 1)
+default_runs=() fast_runs=()
+for _ in $(seq "$RUNS"); do
+  # default first: it also applies pending Liquibase changesets, which fast-startup does not
+  default_runs+=("$(measure default -Dspring.profiles.active=prod -jar "$EXEC_JAR")")
+  fast_runs+=("$(measure fast-startup -XX:SharedArchiveFile="$STARTUP_DIR/application.jsa" -Xshare:auto \
+      -Dspring.aot.enabled=true -Dspring.profiles.active=prod,fast-startup -jar "$APP_JAR")")
+done
+
+default_ms=$(printf '%s\n' "${default_runs[@]}" | median)
+fast_ms=$(printf '%s\n' "${fast_runs[@]}" | median)
+
+echo "------------------------------------------------------------------------"
+echo "Time to first request (median of $RUNS runs, GET /api/v1/clients/{id})"
+printf '  %-14s %6s ms   runs: %s\n' "default" "$default_ms" "${default_runs[*]}"
+printf '  %-14s %6s ms   runs: %s\n' "fast-startup" "$fast_ms" "${fast_runs[*]}"
+echo "------------------------------------------------------------------------"
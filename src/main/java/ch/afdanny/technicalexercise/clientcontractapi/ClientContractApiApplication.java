@@ -1,15 +1,18 @@
 package ch.afdanny.technicalexercise.clientcontractapi;
 
+import ch.afdanny.technicalexercise.clientcontractapi.startup.AppRuntimeHints;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @OpenAPIDefinition(
         info = @Info(title = "Client Contract API", version = "v1",
                 description = "API for managing clients and contracts")
 )
 @SpringBootApplication
+@ImportRuntimeHints(AppRuntimeHints.class)
 public class ClientContractApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Schedules the rebuilds of the in-memory cost distribution ({@link CostDistributions}).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@EnableConfigurationProperties(CostDistributionProperties.class)
+public class CostDistributionConfig {
+
+    @Bean
+    CostDistributionScheduler costDistributionScheduler(CostDistributions costDistributions) {
+        return new CostDistributionScheduler(costDistributions);
+    }
+}
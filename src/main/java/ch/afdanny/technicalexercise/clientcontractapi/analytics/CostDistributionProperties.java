@@ -0,0 +1,19 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cost distribution settings ({@code app.cost-distribution.*}).
+ *
+ * @param relativeAccuracy bound of the relative error of every percentile (0.01: within 1% of the exact value)
+ * @param rebuildInterval  pause between two rebuilds from the database, which take in the other instances' writes
+ */
+@ConfigurationProperties("app.cost-distribution")
+public record CostDistributionProperties(
+        @DefaultValue("0.01") double relativeAccuracy,
+        @DefaultValue("15m") Duration rebuildInterval
+) {
+}
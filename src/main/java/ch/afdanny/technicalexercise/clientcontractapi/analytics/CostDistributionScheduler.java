@@ -0,0 +1,30 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Rebuilds the cost distribution at startup, then every {@code app.cost-distribution.rebuild-interval}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CostDistributionScheduler {
+
+    private final CostDistributions costDistributions;
+
+    @Scheduled(initialDelayString = "${app.cost-distribution.rebuild-interval:15m}",
+            fixedDelayString = "${app.cost-distribution.rebuild-interval:15m}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            costDistributions.rebuild();
+        } catch (RuntimeException e) {
+            // the sketches keep following this instance's writes until the next rebuild; never propagated,
+            // it would abort startup (ApplicationReadyEvent)
+            log.warn("Cost distribution rebuild failed", e);
+        }
+    }
+}
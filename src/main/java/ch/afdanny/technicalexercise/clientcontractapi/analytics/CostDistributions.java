@@ -0,0 +1,203 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Bulkhead;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import ch.afdanny.technicalexercise.clientcontractapi.expiry.ContractExpiredEvent;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.CostBucketCount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Distribution of the cost amounts of active contracts per client type, kept in memory as {@link CostSketch}es.
+ *
+ * Writes update it once their transaction commits: contracts created active, cost updates of active contracts,
+ * contracts closed with their client, and day rollover expiries. It is rebuilt from the database at startup and
+ * periodically ({@link CostDistributionScheduler}), which takes in the other instances' writes: one aggregate per
+ * shard, in parallel, on the reporting pool. Writes committed while a rebuild scans are replayed on its result;
+ * those committed just before its scan starts may be counted twice until the next rebuild.
+ *
+ * Metrics: cost.distribution.contracts{type}: active contracts counted; cost.distribution.rebuild: rebuild duration.
+ */
+@Service
+public class CostDistributions {
+
+    private final ContractRepository contractRepository;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final double relativeAccuracy;
+    private final Timer rebuildTimer;
+
+    /** Writes take the read lock (concurrently); a rebuild takes the write lock to swap in its result. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<ClientType, CostSketch> sketches;
+    private volatile Instant rebuiltAt;
+    /** Writes committed during the current rebuild, guarded by {@link #lock}. */
+    private Map<ClientType, CostSketch> replay;
+
+    public CostDistributions(ContractRepository contractRepository, Shards shards, TransactionTemplate transactionTemplate,
+                             CostDistributionProperties properties, MeterRegistry meterRegistry) {
+        this.contractRepository = contractRepository;
+        this.shards = shards;
+        this.transactionTemplate = transactionTemplate;
+        this.relativeAccuracy = properties.relativeAccuracy();
+        this.sketches = emptySketches();
+        this.rebuildTimer = Timer.builder("cost.distribution.rebuild").register(meterRegistry);
+        for (ClientType type : ClientType.values()) {
+            Gauge.builder("cost.distribution.contracts", this, d -> d.sketches.get(type).count())
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /** End of the last rebuild, {@code null} before the first one. */
+    public Instant rebuiltAt() {
+        return rebuiltAt;
+    }
+
+    /** Copy of the current sketches. */
+    public Map<ClientType, CostSketch> snapshot() {
+        Map<ClientType, CostSketch> copy = new EnumMap<>(ClientType.class);
+        sketches.forEach((type, sketch) -> copy.put(type, sketch.copy()));
+        return copy;
+    }
+
+    /** {@code contract} was created by the current transaction for a client of {@code type}. */
+    public void created(ClientType type, Contract contract) {
+        if (isActive(contract)) {
+            afterCommit(() -> apply(type, contract.getCostAmount(), true));
+        }
+    }
+
+    /** The cost of {@code contract} was changed from {@code previousCost} by the current transaction. */
+    public void costChanged(ClientType type, Contract contract, BigDecimal previousCost) {
+        if (isActive(contract) && previousCost.compareTo(contract.getCostAmount()) != 0) {
+            afterCommit(() -> {
+                apply(type, previousCost, false);
+                apply(type, contract.getCostAmount(), true);
+            });
+        }
+    }
+
+    /** Active contracts of a client of {@code type}, with these costs, were closed by the current transaction. */
+    public void closed(ClientType type, Collection<BigDecimal> costs) {
+        if (!costs.isEmpty()) {
+            afterCommit(() -> costs.forEach(cost -> apply(type, cost, false)));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onExpired(ContractExpiredEvent event) {
+        apply(event.clientType(), event.costAmount(), false);
+    }
+
+    /**
+     * Replaces the sketches by counts of the active contracts of every shard, bucketed by the database
+     * ({@link ContractRepository#countActiveByCostBucket}), plus the writes committed meanwhile.
+     */
+    @Bulkhead(Bulkhead.REPORTING)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        withWriteLock(() -> replay = emptySketches());
+        Map<ClientType, CostSketch> rebuilt = emptySketches();
+        try {
+            LocalDate today = LocalDate.now();
+            double logGamma = rebuilt.get(ClientType.PERSON).logGamma();
+            Map<String, List<CostBucketCount>> buckets = shards.onAll(() -> transactionTemplate.execute(tx ->
+                    contractRepository.countActiveByCostBucket(logGamma, today)));
+            buckets.values().forEach(counts -> counts.forEach(count ->
+                    rebuilt.get(ClientType.valueOf(count.getType())).addToBucket(count.getBucket(), count.getCount())));
+        } catch (RuntimeException e) {
+            withWriteLock(() -> replay = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            replay.forEach((type, writes) -> rebuilt.get(type).merge(writes));
+            replay = null;
+            sketches = rebuilt;
+            rebuiltAt = Instant.now();
+        });
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void apply(ClientType type, BigDecimal cost, boolean add) {
+        double value = cost.doubleValue();
+        lock.readLock().lock();
+        try {
+            update(sketches.get(type), value, add);
+            if (replay != null) {
+                update(replay.get(type), value, add);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void update(CostSketch sketch, double value, boolean add) {
+        if (add) {
+            sketch.add(value);
+        } else {
+            sketch.remove(value);
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<ClientType, CostSketch> emptySketches() {
+        Map<ClientType, CostSketch> empty = new EnumMap<>(ClientType.class);
+        for (ClientType type : ClientType.values()) {
+            empty.put(type, new CostSketch(relativeAccuracy));
+        }
+        return empty;
+    }
+
+    /** Active: open-ended or ending after today (as in ContractRepository). */
+    private static boolean isActive(Contract contract) {
+        return contract.getEndDate() == null || contract.getEndDate().isAfter(LocalDate.now());
+    }
+
+    /** Runs {@code update} once the current transaction commits (never on rollback), or now without one. */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,186 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantile sketch of positive amounts with a relative error guarantee (DDSketch, logarithmic buckets).
+ *
+ * A value v is counted in bucket {@code ceil(log(v) / log(gamma))}, gamma = (1 + a) / (1 - a), and every bucket is
+ * estimated by the one value within relative distance a of all its members: any quantile is within a times
+ * its true value. Counts are exact, so values can be removed as well as added, and sketches with the same
+ * accuracy merge by adding their counts (per shard, per client type).
+ *
+ * Values outside [{@link #MIN_VALUE}, {@link #MAX_VALUE}] are counted in the first / last bucket.
+ * Thread-safe: updates are lock-free; {@link #copy()} gives a snapshot to read several statistics from.
+ */
+public final class CostSketch {
+
+    /** Smallest cost amount (two decimals). */
+    static final double MIN_VALUE = 0.01;
+    static final double MAX_VALUE = 1e15;
+
+    /** Histogram bin bounds per decade: 1, 2, 5, 10, 20, 50... */
+    private static final double[] BIN_STEPS = {1, 2, 5};
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int minIndex;
+    private final AtomicLongArray counts;
+
+    public CostSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("relativeAccuracy must be in ]0, 1[: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.minIndex = rawIndex(MIN_VALUE);
+        this.counts = new AtomicLongArray(rawIndex(MAX_VALUE) - minIndex + 1);
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /** log(gamma): the divisor of the bucket index, for buckets computed elsewhere (e.g. in SQL). */
+    public double logGamma() {
+        return logGamma;
+    }
+
+    /** Bucket of {@code value}: {@code ceil(log(value) / log(gamma))}. */
+    public int index(double value) {
+        return rawIndex(Math.clamp(value, MIN_VALUE, MAX_VALUE));
+    }
+
+    public void add(double value) {
+        addToBucket(index(value), 1);
+    }
+
+    public void remove(double value) {
+        addToBucket(index(value), -1);
+    }
+
+    /** Adds {@code count} (negative to remove) values to bucket {@code index}; out of range indexes are clamped. */
+    public void addToBucket(int index, long count) {
+        counts.addAndGet(Math.clamp(index - minIndex, 0, counts.length() - 1), count);
+    }
+
+    /** Adds the counts of {@code other}, which must have the same accuracy. */
+    public void merge(CostSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracies");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public CostSketch copy() {
+        CostSketch copy = new CostSketch(relativeAccuracy);
+        copy.merge(this);
+        return copy;
+    }
+
+    /** Number of values. */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += count(i);
+        }
+        return total;
+    }
+
+    /**
+     * Value of rank {@code q * (count - 1)} (0 = smallest, 1 = largest), within the relative accuracy;
+     * {@code NaN} when empty.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+        }
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = q * (count - 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += count(i);
+            if (seen > rank) {
+                return value(i);
+            }
+        }
+        return value(counts.length() - 1);
+    }
+
+    /**
+     * Counts per bin of a logarithmic 1-2-5 scale (..., [10, 20[, [20, 50[, [50, 100[, ...), from the first to the
+     * last non-empty bin. A bucket is counted in the bin of its estimate: values within the relative accuracy of
+     * a bin bound may be counted in the neighbouring bin.
+     */
+    public List<Bin> histogram() {
+        List<Bin> bins = new ArrayList<>();
+        for (int i = 0; i < counts.length(); i++) {
+            long count = count(i);
+            if (count == 0) {
+                continue;
+            }
+            double value = value(i);
+            if (bins.isEmpty()) {
+                bins.add(binOf(value, 0));
+            }
+            while (value >= bins.getLast().upperBound()) {
+                bins.add(new Bin(bins.getLast().upperBound(), nextBound(bins.getLast().upperBound()), 0));
+            }
+            Bin last = bins.removeLast();
+            bins.add(new Bin(last.lowerBound(), last.upperBound(), last.count() + count));
+        }
+        return bins;
+    }
+
+    /** Values in [lowerBound, upperBound[. */
+    public record Bin(double lowerBound, double upperBound, long count) {
+    }
+
+    private int rawIndex(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /** Estimate of bucket i, which holds ]gamma^(i-1), gamma^i]: within the relative accuracy of both ends. */
+    private double value(int i) {
+        return 2 * Math.pow(gamma, i + minIndex) / (gamma + 1);
+    }
+
+    /** Removals of values never added (or added by another node) can make a bucket negative: read as empty. */
+    private long count(int i) {
+        return Math.max(0, counts.get(i));
+    }
+
+    private static Bin binOf(double value, long count) {
+        double decade = Math.pow(10, Math.floor(Math.log10(value)));
+        if (value >= 10 * decade) { // log10 rounded down
+            decade *= 10;
+        } else if (value < decade) {
+            decade /= 10;
+        }
+        double lower = decade;
+        for (double step : BIN_STEPS) {
+            if (value >= step * decade) {
+                lower = step * decade;
+            }
+        }
+        return new Bin(lower, nextBound(lower), count);
+    }
+
+    private static double nextBound(double bound) {
+        double decade = Math.pow(10, Math.floor(Math.log10(bound) + 1e-9));
+        double step = Math.round(bound / decade);
+        return step == 1 ? 2 * decade : step == 2 ? 5 * decade : 10 * decade;
+    }
+}
@@ -0,0 +1,44 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardRoutingDataSource;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the in-process caches of every node coherent over PostgreSQL LISTEN / NOTIFY
+ * ({@code app.cache-invalidation.enabled}, on by default; when off, nothing is published nor listened to).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheInvalidationConfig {
+
+    /** Tags this node's notifications, which it skips on receipt. */
+    private final String node = UUID.randomUUID().toString();
+
+    @Bean
+    CacheInvalidationPublisher cacheInvalidationPublisher(ShardRoutingDataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                                          CacheInvalidationProperties properties, MeterRegistry meterRegistry) {
+        return new CacheInvalidationPublisher(dataSource, properties, node, localCaches(entityManagerFactory), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache-invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    CacheInvalidationListener cacheInvalidationListener(ShardRoutingDataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                                        CacheInvalidationProperties properties, MeterRegistry meterRegistry) {
+        return new CacheInvalidationListener(dataSource, localCaches(entityManagerFactory), properties, node, meterRegistry);
+    }
+
+    private static Map<String, LocalCache> localCaches(EntityManagerFactory entityManagerFactory) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        return Map.of(LocalCache.CLIENT, new HibernateEntityCache(cache, Client.class, "client-active-by-id"));
+    }
+}
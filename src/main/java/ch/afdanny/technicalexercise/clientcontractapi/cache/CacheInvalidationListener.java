@@ -0,0 +1,175 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Evicts local cache entries invalidated by the other nodes ({@link CacheInvalidationPublisher}).
+ *
+ * Each database (every shard) is listened to on a dedicated connection, outside the pools. Notifications
+ * arriving within {@code batch-window} of each other are evicted together, each key once. Notifications sent
+ * while a connection is down are lost: after a reconnection, every local cache is cleared.
+ *
+ * Metrics:
+ *  - cache.invalidation.lag: time from the sender's commit to the local eviction (assumes synchronized clocks)
+ *  - cache.invalidation.evicted{cache}: keys evicted
+ *  - cache.invalidation.reconnects{shard}: reconnections, each followed by a full clear
+ *  - cache.invalidation.connected{shard}: 1 while listening
+ */
+@Slf4j
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private final ShardRoutingDataSource dataSource;
+    private final Map<String, LocalCache> caches;
+    private final CacheInvalidationProperties properties;
+    private final String node;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, Boolean> connected = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    public CacheInvalidationListener(ShardRoutingDataSource dataSource, Map<String, LocalCache> caches,
+                                     CacheInvalidationProperties properties, String node, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.caches = Map.copyOf(caches);
+        this.properties = properties;
+        this.node = node;
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("cache.invalidation.lag").publishPercentileHistogram().register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        for (String shard : dataSource.shardNames()) {
+            connected.put(shard, false);
+            Gauge.builder("cache.invalidation.connected", connected, c -> c.get(shard) ? 1 : 0).tag("shard", shard).register(meterRegistry);
+            threads.add(Thread.ofPlatform().daemon().name("cache-invalidation-" + shard).start(() -> listen(shard)));
+        }
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** Whether the connection to {@code shard} is listening. */
+    public boolean isConnected(String shard) {
+        return connected.getOrDefault(shard, false);
+    }
+
+    private void listen(String shard) {
+        Counter reconnects = Counter.builder("cache.invalidation.reconnects").tag("shard", shard).register(meterRegistry);
+        boolean everConnected = false;
+        long backoff = 1000;
+        while (running.get()) {
+            try (Connection connection = dataSource.openDedicatedConnection(shard);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + properties.channel());
+                if (everConnected) {
+                    // listening again: whatever was sent meanwhile is lost
+                    caches.values().forEach(LocalCache::clear);
+                    reconnects.increment();
+                    log.info("Cache invalidation listener reconnected to shard '{}', local caches cleared", shard);
+                }
+                everConnected = true;
+                backoff = 1000;
+                connected.put(shard, true);
+                receive(connection.unwrap(PGConnection.class), statement);
+            } catch (SQLException e) {
+                if (running.get()) {
+                    log.warn("Cache invalidation listener lost shard '{}', retrying in {} ms", shard, backoff, e);
+                }
+            } finally {
+                connected.put(shard, false);
+            }
+            if (!running.get() || !sleep(backoff)) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, properties.maxReconnectBackoff().toMillis());
+        }
+    }
+
+    private void receive(PGConnection connection, Statement statement) throws SQLException {
+        int keepalive = (int) properties.keepalive().toMillis();
+        long window = properties.batchWindow().toNanos();
+        while (running.get()) {
+            PGNotification[] first = connection.getNotifications(keepalive);
+            if (first == null || first.length == 0) {
+                statement.execute("SELECT 1"); // a dead connection fails here rather than waiting forever
+                continue;
+            }
+            List<PGNotification> batch = new ArrayList<>(Arrays.asList(first));
+            long end = System.nanoTime() + window;
+            long left;
+            while ((left = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime())) > 0) {
+                PGNotification[] more = connection.getNotifications((int) left);
+                if (more != null) {
+                    batch.addAll(Arrays.asList(more));
+                }
+            }
+            apply(batch);
+        }
+    }
+
+    private void apply(List<PGNotification> batch) {
+        Map<String, Set<String>> keys = new LinkedHashMap<>();
+        List<Long> sentAt = new ArrayList<>();
+        for (PGNotification notification : batch) {
+            InvalidationMessage message;
+            try {
+                message = InvalidationMessage.decode(notification.getParameter());
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring cache invalidation '{}'", notification.getParameter());
+                continue;
+            }
+            if (message.node().equals(node) || !caches.containsKey(message.cache())) {
+                continue; // our own writes are already evicted locally
+            }
+            keys.computeIfAbsent(message.cache(), c -> new LinkedHashSet<>()).addAll(message.keys());
+            sentAt.add(message.sentAtMillis());
+        }
+        keys.forEach((cache, cacheKeys) -> {
+            caches.get(cache).evict(cacheKeys);
+            Counter.builder("cache.invalidation.evicted").tag("cache", cache).register(meterRegistry).increment(cacheKeys.size());
+        });
+        long now = System.currentTimeMillis();
+        sentAt.forEach(sent -> lag.record(Duration.ofMillis(Math.max(0, now - sent))));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cross-node cache invalidation settings ({@code app.cache-invalidation.*}).
+ *
+ * @param channel             PostgreSQL NOTIFY channel shared by every node
+ * @param batchWindow         invalidations received within this window after the first one are evicted together
+ * @param keepalive           idle listening connections are checked this often, so a dead one is noticed
+ * @param maxReconnectBackoff upper bound of the delay between reconnection attempts (doubling from 1 s)
+ */
+@ConfigurationProperties("app.cache-invalidation")
+public record CacheInvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("cache_invalidation") String channel,
+        @DefaultValue("50ms") Duration batchWindow,
+        @DefaultValue("10s") Duration keepalive,
+        @DefaultValue("30s") Duration maxReconnectBackoff
+) {
+}
@@ -0,0 +1,105 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells the other nodes which cache entries a write made stale.
+ *
+ * Within a transaction, invalidations are collected and sent just before commit by {@code pg_notify} on the
+ * transaction's own connection: PostgreSQL delivers them only if the transaction commits, and only then.
+ * A transaction touching many keys sends one notification per cache (split below the payload limit).
+ * Writes made in plain SQL, which the local cache does not see, also lock and evict the key locally.
+ *
+ * Metrics: cache.invalidation.published{cache}: keys sent.
+ */
+public class CacheInvalidationPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationProperties properties;
+    private final String node;
+    private final Map<String, LocalCache> localCaches;
+    private final MeterRegistry meterRegistry;
+
+    public CacheInvalidationPublisher(DataSource dataSource, CacheInvalidationProperties properties, String node,
+                                      Map<String, LocalCache> localCaches, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.node = node;
+        this.localCaches = Map.copyOf(localCaches);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * For a write made outside the persistence context, to call before it: locks {@code key} of {@code cache} on
+     * this node until the current transaction completes, then drops it, and invalidates it on every other node.
+     */
+    public void evictAndInvalidate(String cache, Object key) {
+        LocalCache local = localCaches.get(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Runnable unlock = local.lock(key.toString());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlock.run();
+                }
+            });
+        } else {
+            local.evict(Set.of(key.toString()));
+        }
+        invalidate(cache, key);
+    }
+
+    /** Invalidates {@code key} of {@code cache} on every other node once the current transaction commits. */
+    public void invalidate(String cache, Object key) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Map.of(cache, Set.of(key.toString())));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.keys.computeIfAbsent(cache, c -> new LinkedHashSet<>()).add(key.toString());
+    }
+
+    private void send(Map<String, Set<String>> keys) {
+        long now = System.currentTimeMillis();
+        keys.forEach((cache, cacheKeys) -> {
+            for (String payload : InvalidationMessage.encode(node, now, cache, cacheKeys)) {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, properties.channel(), payload);
+            }
+            Counter.builder("cache.invalidation.published").tag("cache", cache).register(meterRegistry).increment(cacheKeys.size());
+        });
+    }
+
+    /** Keys invalidated by the current transaction. */
+    private class Pending implements TransactionSynchronization {
+
+        private final Map<String, Set<String>> keys = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(keys);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(CacheInvalidationPublisher.this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Second-level cache region of an entity with UUID ids, and the query regions returning it.
+ * Query cache keys cannot be addressed by entity id: the query regions are cleared with any eviction.
+ * Within a transaction, {@link #lock} takes the region's soft lock, as Hibernate does for its own updates.
+ */
+public class HibernateEntityCache implements LocalCache {
+
+    private final Cache cache;
+    private final Class<?> entity;
+    private final String[] queryRegions;
+
+    public HibernateEntityCache(Cache cache, Class<?> entity, String... queryRegions) {
+        this.cache = cache;
+        this.entity = entity;
+        this.queryRegions = queryRegions;
+    }
+
+    @Override
+    public void evict(Collection<String> keys) {
+        keys.forEach(key -> cache.evictEntityData(entity, UUID.fromString(key)));
+        clearQueryRegions();
+    }
+
+    /**
+     * Soft-locks the entry in the current transaction's session: until unlocked, and after that for sessions
+     * started before, loads are not cached. Without a transactional session, evicts it before and after.
+     */
+    @Override
+    public Runnable lock(String key) {
+        SessionFactoryImplementor sessionFactory = cache.getSessionFactory().unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entity);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(sessionFactory);
+        if (access == null || entityManager == null) {
+            return LocalCache.super.lock(key);
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Object cacheKey = access.generateCacheKey(UUID.fromString(key), persister, sessionFactory,
+                session.getTenantIdentifier());
+        SoftLock softLock = access.lockItem(session, cacheKey, null);
+        return () -> {
+            access.unlockItem(session, cacheKey, softLock);
+            clearQueryRegions();
+        };
+    }
+
+    @Override
+    public void clear() {
+        cache.evictEntityData(entity);
+        clearQueryRegions();
+    }
+
+    private void clearQueryRegions() {
+        for (String region : queryRegions) {
+            cache.evictQueryRegion(region);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * NOTIFY payload: {@code node|sentAtMillis|cache|key,key,...}. Keys must not contain ',' nor '|'.
+ */
+record InvalidationMessage(String node, long sentAtMillis, String cache, List<String> keys) {
+
+    /** PostgreSQL rejects payloads of 8000 bytes or more. */
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    String encode() {
+        return node + '|' + sentAtMillis + '|' + cache + '|' + String.join(",", keys);
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed invalidation: " + payload);
+        }
+        List<String> keys = parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(","));
+        return new InvalidationMessage(parts[0], Long.parseLong(parts[1]), parts[2], keys);
+    }
+
+    /** Payloads for {@code keys}, each below the NOTIFY size limit. */
+    static List<String> encode(String node, long sentAtMillis, String cache, Collection<String> keys) {
+        List<String> payloads = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int header = (node + '|' + sentAtMillis + '|' + cache + '|').getBytes(StandardCharsets.UTF_8).length;
+        int size = header;
+        for (String key : keys) {
+            int keySize = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!chunk.isEmpty() && size + keySize > MAX_PAYLOAD_BYTES) {
+                payloads.add(new InvalidationMessage(node, sentAtMillis, cache, chunk).encode());
+                chunk = new ArrayList<>();
+                size = header;
+            }
+            chunk.add(key);
+            size += keySize;
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(new InvalidationMessage(node, sentAtMillis, cache, chunk).encode());
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,28 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An in-process cache kept coherent across nodes by {@link CacheInvalidationListener}.
+ */
+public interface LocalCache {
+
+    /** Client entities (and the queries returning them), keyed by client id. */
+    String CLIENT = "client";
+
+    /** Evicts the entries of {@code keys}, as published with {@link CacheInvalidationPublisher#invalidate}. */
+    void evict(Collection<String> keys);
+
+    /**
+     * Keeps {@code key} from being cached again until the returned action runs, once the write about to be made
+     * outside the cache has completed: a read of the old row meanwhile is not cached. Evicts it now and then.
+     */
+    default Runnable lock(String key) {
+        evict(List.of(key));
+        return () -> evict(List.of(key));
+    }
+
+    /** Evicts everything: invalidations may have been missed. */
+    void clear();
+}
@@ -0,0 +1,31 @@
+package ch.afdanny.technicalexercise.clientcontractapi.caller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+/**
+ * Who sends a request, as far as it can be verified: the authenticated principal, else the API key header when
+ * a gateway in front verifies it. An unverified header is not an identity: anyone could send any value, another
+ * integration's key included.
+ */
+public final class CallerIdentity {
+
+    private CallerIdentity() {
+    }
+
+    /**
+     * {@code user:<principal>} or {@code key:<api key>}; null when the caller cannot be told apart from others.
+     *
+     * @param trustApiKeyHeader whether {@code apiKeyHeader} is verified upstream
+     */
+    public static String of(HttpServletRequest request, String apiKeyHeader, boolean trustApiKeyHeader) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String apiKey = trustApiKeyHeader ? request.getHeader(apiKeyHeader) : null;
+        return StringUtils.hasText(apiKey) ? "key:" + apiKey : null;
+    }
+}
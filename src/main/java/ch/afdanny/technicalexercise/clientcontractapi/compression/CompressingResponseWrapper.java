@@ -0,0 +1,376 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Holds back the first {@code minResponseSize} bytes of the body. A response that ends before is sent
+ * as it is, with its Content-Length; a larger one is compressed as it streams: once the threshold is
+ * crossed nothing more is buffered, so list and export endpoints are never held in memory.
+ */
+final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ContentCoding coding;
+    private final CompressionProperties properties;
+    private final List<MimeType> mimeTypes;
+    private final DeflaterPool deflaters;
+    private final int threshold;
+
+    private long declaredLength = -1;
+    private boolean passThrough;
+    private CompressingOutputStream stream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletResponse response, ContentCoding coding, CompressionProperties properties,
+                               List<MimeType> mimeTypes, DeflaterPool deflaters) {
+        super(response);
+        this.coding = coding;
+        this.properties = properties;
+        this.mimeTypes = mimeTypes;
+        this.deflaters = deflaters;
+        this.threshold = (int) Math.min(properties.minResponseSize().toBytes(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        if (passThrough) {
+            return super.getOutputStream();
+        }
+        if (stream == null) {
+            stream = new CompressingOutputStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            if (passThrough) {
+                return super.getWriter();
+            }
+            stream = new CompressingOutputStream();
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.ISO_8859_1;
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        declaredLength = len;
+        if (passThrough || (stream != null && stream.state == State.IDENTITY)) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        passThrough = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        passThrough = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        }
+        // while buffering, committing the response would fix the headers before the coding is chosen
+        if (stream == null || stream.state != State.BUFFERING) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (stream != null && stream.state == State.BUFFERING) {
+            stream.count = 0;
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        declaredLength = -1;
+        if (stream != null && stream.state == State.BUFFERING) {
+            stream.count = 0;
+        }
+    }
+
+    /** Completes the body: writes a held-back small response, or ends the compressed stream. */
+    void finish() throws IOException {
+        try {
+            if (writer != null) {
+                writer.close();
+            } else if (stream != null) {
+                stream.close();
+            }
+        } finally {
+            abandon();
+        }
+    }
+
+    /**
+     * Called instead of {@link #finish()} when the request went async: the body is completed after the filter
+     * returned. What is held back is sent as it is and the rest goes straight to the response, uncompressed.
+     * A body already being compressed is ended when the async request completes, or released if it fails.
+     */
+    void bypass(AsyncContext async) throws IOException {
+        if (stream != null && stream.state == State.COMPRESSING) {
+            async.addListener(new AsyncListener() {
+                private boolean failed;
+
+                @Override
+                public void onComplete(AsyncEvent event) throws IOException {
+                    if (failed) {
+                        abandon();
+                    } else {
+                        finish();
+                    }
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    failed = true;
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    failed = true;
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                    event.getAsyncContext().addListener(this);
+                }
+            });
+            return;
+        }
+        passThrough = true;
+        if (stream != null && stream.state == State.BUFFERING) {
+            if (writer != null) {
+                writer.flush();
+            }
+            stream.choose(State.IDENTITY);
+        }
+    }
+
+    /**
+     * Releases the encoder (pooled deflater, native zstd stream) without writing anything more: a body
+     * cut short by an exception is not ended as if it were complete. No-op once the stream is closed.
+     */
+    void abandon() {
+        if (stream != null && stream.state == State.COMPRESSING && !stream.closed) {
+            stream.closed = true;
+            stream.sink.detached = true;
+            try {
+                stream.target.close();
+            } catch (IOException e) {
+                // the sink discards everything: nothing to report
+            }
+        }
+    }
+
+    private boolean eligible() {
+        int status = getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        if (declaredLength >= 0 && declaredLength < threshold) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        MimeType type = MimeType.valueOf(contentType);
+        return mimeTypes.stream().anyMatch(m -> m.includes(type));
+    }
+
+    private enum State { BUFFERING, IDENTITY, COMPRESSING }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private State state = State.BUFFERING;
+        private byte[] buffer = new byte[Math.min(threshold, 1024)];
+        private int count;
+        private OutputStream target;
+        private Sink sink;
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (state == State.BUFFERING) {
+                if (count + len < threshold) {
+                    append(b, off, len);
+                    return;
+                }
+                choose(eligible() ? State.COMPRESSING : State.IDENTITY);
+            }
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state != State.BUFFERING) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (state == State.BUFFERING) {
+                if (declaredLength < 0) {
+                    declaredLength = count;
+                }
+                choose(State.IDENTITY);
+            }
+            target.close();
+        }
+
+        private void append(byte[] b, int off, int len) {
+            if (count + len > buffer.length) {
+                byte[] grown = new byte[Math.min(threshold, Math.max(buffer.length * 2, count + len))];
+                System.arraycopy(buffer, 0, grown, 0, count);
+                buffer = grown;
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        private void choose(State next) throws IOException {
+            ServletOutputStream out = CompressingResponseWrapper.super.getOutputStream();
+            if (next == State.COMPRESSING) {
+                CompressingResponseWrapper.super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+                sink = new Sink(out);
+                target = coding.encoder(sink, properties, deflaters);
+            } else {
+                if (declaredLength >= 0) {
+                    CompressingResponseWrapper.super.setContentLengthLong(declaredLength);
+                }
+                target = out;
+            }
+            state = next;
+            target.write(buffer, 0, count);
+            buffer = null;
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return CompressingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            try {
+                CompressingResponseWrapper.super.getOutputStream().setWriteListener(listener);
+            } catch (IOException e) {
+                throw new IllegalStateException("Response output stream unavailable", e);
+            }
+        }
+    }
+
+    /** Encoder output: the response stream, until {@link #abandon()} detaches it. */
+    private static final class Sink extends OutputStream {
+
+        private final OutputStream out;
+        private boolean detached;
+
+        Sink(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!detached) {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!detached) {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!detached) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!detached) {
+                out.close();
+            }
+        }
+    }
+}
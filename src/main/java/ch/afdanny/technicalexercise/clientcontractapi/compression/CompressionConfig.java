@@ -0,0 +1,26 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link ResponseCompressionFilter} ({@code app.compression.enabled}, on by default).
+ * Replaces the container's gzip-only {@code server.compression}, which must stay disabled.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CompressionProperties.class)
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    @Bean
+    FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(CompressionProperties properties) {
+        var registration = new FilterRegistrationBean<>(new ResponseCompressionFilter(properties));
+        // inside the observation filter (HIGHEST_PRECEDENCE + 1): recorded latencies include compression
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,28 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Response compression settings ({@code app.compression.*}).
+ *
+ * @param codings         supported codings, in server preference order when the client weighs them equally
+ * @param minResponseSize responses smaller than this are sent as they are (compression would not pay off)
+ * @param mimeTypes       content types eligible for compression
+ * @param pooledEncoders  gzip encoders kept for reuse, roughly the number of concurrently compressed responses
+ */
+@ConfigurationProperties("app.compression")
+public record CompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue({"zstd", "gzip"}) List<ContentCoding> codings,
+        @DefaultValue("2KB") DataSize minResponseSize,
+        @DefaultValue({"application/json", "application/x-ndjson", "application/problem+json", "application/cbor", "text/plain"})
+        List<String> mimeTypes,
+        @DefaultValue("1") int gzipLevel,
+        @DefaultValue("1") int zstdLevel,
+        @DefaultValue("64") int pooledEncoders
+) {
+}
@@ -0,0 +1,88 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content codings the API can produce, and the negotiation against {@code Accept-Encoding} (RFC 9110 §12.5.3).
+ */
+public enum ContentCoding {
+
+    ZSTD("zstd"),
+    GZIP("gzip");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding with the highest client weight among {@code supported};
+     * ties go to the first one in {@code supported}. Returns null when none is acceptable.
+     */
+    public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> supported) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        ContentCoding best = null;
+        float bestWeight = 0f;
+        for (ContentCoding coding : supported) {
+            float weight = weight(acceptEncoding, coding.token);
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /** Weight given by the client to {@code token}: its own entry if listed, else the "*" entry, else 0. */
+    static float weight(String acceptEncoding, String token) {
+        float wildcard = 0f;
+        for (String entry : acceptEncoding.split(",")) {
+            int semicolon = entry.indexOf(';');
+            String name = (semicolon < 0 ? entry : entry.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            float q = semicolon < 0 ? 1f : qValue(entry.substring(semicolon + 1));
+            if (name.equals(token) || (token.equals("gzip") && name.equals("x-gzip"))) {
+                return q;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+
+    private static float qValue(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Math.clamp(Float.parseFloat(p.substring(2).trim()), 0f, 1f);
+                } catch (NumberFormatException e) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+
+    OutputStream encoder(OutputStream out, CompressionProperties properties, DeflaterPool deflaters) throws IOException {
+        return switch (this) {
+            case GZIP -> new PooledGzipOutputStream(out, deflaters);
+            // native encoder; its internal buffers come from zstd-jni's recycling pool
+            case ZSTD -> new ZstdOutputStreamNoFinalizer(out, RecyclingBufferPool.INSTANCE).setLevel(properties.zstdLevel());
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of raw deflate encoders with their output buffers. A {@link Deflater} holds ~256 KB of
+ * native zlib state; allocating one per response costs more than compressing a small response.
+ * When the pool is empty a new encoder is created, when it is full a returned encoder is released.
+ */
+final class DeflaterPool {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    record Encoder(Deflater deflater, byte[] buffer) {}
+
+    private final BlockingQueue<Encoder> idle;
+    private final int level;
+
+    DeflaterPool(int capacity, int level) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.level = level;
+    }
+
+    Encoder acquire() {
+        Encoder encoder = idle.poll();
+        return encoder != null ? encoder : new Encoder(new Deflater(level, true), new byte[BUFFER_SIZE]);
+    }
+
+    void release(Encoder encoder) {
+        encoder.deflater().reset();
+        if (!idle.offer(encoder)) {
+            encoder.deflater().end();
+        }
+    }
+}
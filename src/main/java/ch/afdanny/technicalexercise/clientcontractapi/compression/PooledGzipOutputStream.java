@@ -0,0 +1,97 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * gzip (RFC 1952) stream whose deflate encoder and buffer are borrowed from a {@link DeflaterPool}
+ * and returned on {@link #close()}. {@link #flush()} emits a sync flush, so streamed responses
+ * reach the client as they are produced.
+ */
+final class PooledGzipOutputStream extends OutputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+    private final DeflaterPool pool;
+    private final CRC32 crc = new CRC32();
+    private DeflaterPool.Encoder encoder;
+
+    PooledGzipOutputStream(OutputStream out, DeflaterPool pool) throws IOException {
+        this.out = out;
+        this.pool = pool;
+        this.encoder = pool.acquire();
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return;
+        }
+        crc.update(b, off, len);
+        Deflater deflater = encoder.deflater();
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (drain(Deflater.SYNC_FLUSH) == encoder.buffer().length) {
+            // buffer was filled: more pending output
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (encoder == null) {
+            return;
+        }
+        try {
+            Deflater deflater = encoder.deflater();
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            writeTrailer((int) crc.getValue(), (int) deflater.getBytesRead());
+        } finally {
+            pool.release(encoder);
+            encoder = null;
+        }
+        out.close();
+    }
+
+    private int drain(int flushMode) throws IOException {
+        byte[] buffer = encoder.buffer();
+        int n = encoder.deflater().deflate(buffer, 0, buffer.length, flushMode);
+        if (n > 0) {
+            out.write(buffer, 0, n);
+        }
+        return n;
+    }
+
+    private void writeTrailer(int crc32, int inputSize) throws IOException {
+        out.write(new byte[]{
+                (byte) crc32, (byte) (crc32 >> 8), (byte) (crc32 >> 16), (byte) (crc32 >> 24),
+                (byte) inputSize, (byte) (inputSize >> 8), (byte) (inputSize >> 16), (byte) (inputSize >> 24)
+        });
+    }
+
+    private void ensureOpen() throws IOException {
+        if (encoder == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
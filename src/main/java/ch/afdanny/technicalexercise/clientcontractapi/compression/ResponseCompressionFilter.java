@@ -0,0 +1,62 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.MimeType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compresses response bodies with the coding negotiated from {@code Accept-Encoding}
+ * (see {@link ContentCoding}), for the configured content types and above the size threshold.
+ * Responses completed asynchronously are not compressed (see {@link CompressingResponseWrapper#bypass}).
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final CompressionProperties properties;
+    private final List<MimeType> mimeTypes;
+    private final DeflaterPool deflaters;
+
+    public ResponseCompressionFilter(CompressionProperties properties) {
+        this.properties = properties;
+        this.mimeTypes = properties.mimeTypes().stream().map(MimeType::valueOf).toList();
+        this.deflaters = new DeflaterPool(properties.pooledEncoders(), properties.gzipLevel());
+    }
+
+    /** Async dispatches write through the response of the initial dispatch, which decided on compression. */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentCoding coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), properties.codings());
+        if (coding == null || HttpMethod.HEAD.matches(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var compressing = new CompressingResponseWrapper(response, coding, properties, mimeTypes, deflaters);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, compressing);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                compressing.bypass(request.getAsyncContext());
+            } else if (completed) {
+                compressing.finish();
+            } else {
+                compressing.abandon();
+            }
+        }
+    }
+}
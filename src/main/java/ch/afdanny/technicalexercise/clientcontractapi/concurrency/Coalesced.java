@@ -0,0 +1,15 @@
+package ch.afdanny.technicalexercise.clientcontractapi.concurrency;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a read-only service method whose concurrent invocations with equal arguments
+ * share a single in-flight execution (see {@link SingleFlight}).
+ * The value names the flight in metrics (tag "name").
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+    String value();
+}
@@ -0,0 +1,74 @@
+package ch.afdanny.technicalexercise.clientcontractapi.concurrency;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link SingleFlight}s of the {@link Coalesced} methods, by name, keyed by argument list.
+ *
+ * Followers get their own copy of the entities returned (detached clients and contracts), so no two request
+ * threads share one instance. Writes call {@link #forgetAfterCommit} with the arguments whose reads they change.
+ */
+@Component
+@RequiredArgsConstructor
+public class CoalescedReads {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, SingleFlight<List<Object>>> flights = new ConcurrentHashMap<>();
+
+    SingleFlight<List<Object>> flight(String name) {
+        SingleFlight<List<Object>> flight = flights.get(name);
+        if (flight == null) {
+            flight = flights.computeIfAbsent(name, n -> new SingleFlight<>(n, meterRegistry, CoalescedReads::copy));
+        }
+        return flight;
+    }
+
+    /**
+     * The current transaction changes what coalesced reads return for {@code args} (e.g. a client id): once it
+     * has committed (now without one), callers start a new flight instead of joining one that may have read
+     * the data before the write. The writer's next read therefore sees its own write.
+     */
+    public void forgetAfterCommit(Object... args) {
+        List<Object> key = Arrays.asList(args);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // after the local cache evictions registered before by the same write
+                if (status == STATUS_COMMITTED) {
+                    forget(key);
+                }
+            }
+        });
+    }
+
+    private void forget(List<Object> key) {
+        flights.values().forEach(flight -> flight.forget(key));
+    }
+
+    /** Shallow copies: the lazy associations of a detached entity cannot be loaded, hence not changed. */
+    private static Object copy(Object result) {
+        return switch (result) {
+            case PersonClient person -> person.toBuilder().build();
+            case CompanyClient company -> company.toBuilder().build();
+            case Contract contract -> contract.toBuilder().build();
+            case List<?> list -> list.stream().map(CoalescedReads::copy).toList();
+            case null, default -> result; // immutable values: BigDecimal, records...
+        };
+    }
+}
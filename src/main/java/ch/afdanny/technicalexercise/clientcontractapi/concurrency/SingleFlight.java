@@ -0,0 +1,106 @@
+package ch.afdanny.technicalexercise.clientcontractapi.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight execution: while a call for a given key is running, every other caller
+ * asking for the same key waits for that call and receives its result (or its exception)
+ * instead of running its own. Nothing is cached once the call has completed.
+ *
+ * Followers only perform a lock-free {@link ConcurrentMap#get} before joining the leader. Each of them receives
+ * its own copy of the result ({@code copy}), so mutable results are never shared between threads.
+ * {@link #forget} stops new callers from joining a flight whose result a write has made stale.
+ *
+ * Metrics:
+ *  - singleflight.calls{name, role=leader|follower}: coalescing ratio = follower / (leader + follower)
+ *  - singleflight.in.flight{name}: number of keys currently being executed
+ */
+public final class SingleFlight<K> {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Throwable;
+    }
+
+    private record Flight(Thread leader, CompletableFuture<Object> result) {}
+
+    private final ConcurrentMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<Object> copy;
+    private final Counter leaders;
+    private final Counter followers;
+
+    /** For immutable results: every caller gets the same instance. */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this(name, registry, UnaryOperator.identity());
+    }
+
+    public SingleFlight(String name, MeterRegistry registry, UnaryOperator<Object> copy) {
+        this.copy = copy;
+        this.leaders = Counter.builder("singleflight.calls")
+                .tag("name", name).tag("role", "leader")
+                .register(registry);
+        this.followers = Counter.builder("singleflight.calls")
+                .tag("name", name).tag("role", "follower")
+                .register(registry);
+        Gauge.builder("singleflight.in.flight", inFlight, ConcurrentMap::size)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(K key, Call<T> call) throws Throwable {
+        Flight existing = inFlight.get(key);
+        if (existing == null) {
+            Flight mine = new Flight(Thread.currentThread(), new CompletableFuture<>());
+            existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                return (T) lead(key, mine, call);
+            }
+        }
+        if (existing.leader() == Thread.currentThread()) {
+            // re-entrant call for the same key: joining our own flight would never complete
+            return call.call();
+        }
+        followers.increment();
+        return (T) copy.apply(await(existing.result()));
+    }
+
+    /**
+     * Callers asking for {@code key} from now on start a new flight instead of joining the running one.
+     * Callers already waiting still get its result: they asked before the change that made it stale.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private Object lead(K key, Flight flight, Call<?> call) throws Throwable {
+        leaders.increment();
+        try {
+            Object result = call.call();
+            // followers copy a snapshot nobody mutates, not the instance the leader's caller works on
+            flight.result().complete(copy.apply(result));
+            return result;
+        } catch (Throwable t) {
+            flight.result().completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) throws Throwable {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ch.afdanny.technicalexercise.clientcontractapi.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+/**
+ * Applies {@link SingleFlight} to methods annotated with {@link Coalesced}.
+ * Runs before the transaction interceptor, so coalesced callers never open a
+ * transaction nor borrow a connection from the pool.
+ *
+ * A call made within a transaction is never coalesced: it must see that transaction's own writes, and its
+ * result is managed by that transaction's persistence context.
+ */
+@Aspect
+@Component
+@Order(0) // after ExposeInvocationInterceptor, before the transaction advisor (LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+
+    private final CoalescedReads coalescedReads;
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint pjp, Coalesced coalesced) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        return coalescedReads.flight(coalesced.value()).execute(Arrays.asList(pjp.getArgs()), pjp::proceed);
+    }
+}
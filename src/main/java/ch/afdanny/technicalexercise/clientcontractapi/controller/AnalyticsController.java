@@ -0,0 +1,76 @@
+package ch.afdanny.technicalexercise.clientcontractapi.controller;
+
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostDistributions;
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostSketch;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CostDistributionResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CostDistributionResponse.Distribution;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CostDistributionResponse.HistogramBin;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CostDistributionResponse.Percentile;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Validated
+@RestController
+@RequestMapping("/v1/analytics")
+public class AnalyticsController {
+
+    private final CostDistributions costDistributions;
+
+    public AnalyticsController(CostDistributions costDistributions) {
+        this.costDistributions = costDistributions;
+    }
+
+    /**
+     * Percentiles and histogram of the cost amounts of the active contracts, overall and per client type.
+     * Served from memory ({@link CostDistributions}): no query, whatever the number of contracts.
+     */
+    @GetMapping("/cost-distribution")
+    public ResponseEntity<CostDistributionResponse> costDistribution(
+            @RequestParam(defaultValue = "0.5,0.9,0.95,0.99,0.999")
+            @Size(min = 1, max = 20) List<@NotNull @DecimalMin("0") @DecimalMax("1") Double> quantiles
+    ) {
+        Map<ClientType, CostSketch> sketches = costDistributions.snapshot();
+        CostSketch all = new CostSketch(costDistributions.relativeAccuracy());
+        Map<String, Distribution> byClientType = new LinkedHashMap<>();
+        sketches.forEach((type, sketch) -> {
+            all.merge(sketch);
+            byClientType.put(type.name().toLowerCase(Locale.ROOT), distribution(sketch, quantiles));
+        });
+        return ResponseEntity.ok(new CostDistributionResponse(
+                costDistributions.relativeAccuracy(),
+                costDistributions.rebuiltAt(),
+                distribution(all, quantiles),
+                byClientType));
+    }
+
+    private static Distribution distribution(CostSketch sketch, List<Double> quantiles) {
+        long count = sketch.count();
+        List<Percentile> percentiles = quantiles.stream()
+                .map(q -> new Percentile(q, count == 0 ? null : amount(sketch.quantile(q))))
+                .toList();
+        List<HistogramBin> histogram = sketch.histogram().stream()
+                .map(bin -> new HistogramBin(amount(bin.lowerBound()), amount(bin.upperBound()), bin.count()))
+                .toList();
+        return new Distribution(count, percentiles, histogram);
+    }
+
+    private static BigDecimal amount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
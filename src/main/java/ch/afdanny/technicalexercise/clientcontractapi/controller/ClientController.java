@@ -7,18 +7,26 @@ import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
 import ch.afdanny.technicalexercise.clientcontractapi.model.*;
 import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
 import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/v1/clients") // ⇐ versioning
@@ -55,6 +63,28 @@ public class ClientController {
         return ResponseEntity.created(location).body(body);
     }
 
+    /**
+     * Search active clients by name, email or company identifier: prefix or close spelling, best match first.
+     * Keyset pagination: pass the returned {@code nextCursor} as {@code after} for the next page.
+     * A broad query is answered once, flagged {@code truncated}, without a next page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ClientSearchResponse> search(
+            @RequestParam @Size(min = 3, max = 100) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit
+    ) {
+        var page = clientService.search(q, after, limit);
+        List<ClientResponse> items = page.clients().stream()
+                .<ClientResponse>map(c -> switch (c) {
+                    case PersonClient p -> mapper.toPersonResponse(p);
+                    case CompanyClient co -> mapper.toCompanyResponse(co);
+                    default -> throw new IllegalStateException("Unknown client subtype: " + c.getClass());
+                })
+                .toList();
+        return ResponseEntity.ok(new ClientSearchResponse(items, page.nextCursor(), page.truncated()));
+    }
+
     /**
      * Read a client
      */
@@ -89,8 +119,11 @@ public class ClientController {
 
     /**
      * Get all active contracts for a given client.
+     * JSON by default, CBOR for {@code Accept: application/cbor} (schema: /schemas/contracts.cddl), 406 for an
+     * {@code Accept} listing neither. Without {@code Accept} or with {@code *}{@code /*}, this mapping and the NDJSON
+     * one both match: Spring breaks the tie on the media types, JSON before NDJSON, so NDJSON must be asked for.
      */
-    @GetMapping("/{id}/contracts/active")
+    @GetMapping(value = "/{id}/contracts/active", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<ContractResponse>> getActiveContractsForClient(
             @PathVariable UUID id,
             @RequestParam(required = false) LocalDate updatedSince
@@ -109,13 +142,33 @@ public class ClientController {
     }
 
 
+    /**
+     * Same list as NDJSON ({@code Accept: application/x-ndjson}), one contract per line, for large lists:
+     * rendered by PostgreSQL and streamed to the client without being parsed or re-serialized.
+     */
+    @GetMapping(value = "/{id}/contracts/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamActiveContractsForClient(
+            @PathVariable UUID id,
+            @RequestParam(required = false) LocalDate updatedSince,
+            HttpServletResponse response
+    ) throws IOException {
+        clientService.readActive(id);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        contractService.writeActiveByClientNdjson(id, updatedSince, response.getOutputStream());
+    }
+
+
     /**
      * A very performant endpoint that returns the sum of all the cost amounts
      * of the active contracts (current date < endDate or endDate is null)
-     * for one client.
+     * for one client. JSON by default, CBOR for {@code Accept: application/cbor}, 406 for an {@code Accept}
+     * listing neither.
      */
-    @GetMapping("/{id}/contracts/active/sum")
-    public ResponseEntity<ActiveContractsSumResponse> getActiveContractsSum(@PathVariable UUID id) {
+    @GetMapping(value = "/{id}/contracts/active/sum", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ActiveContractsSumResponse> getActiveContractsSum(
+            @PathVariable UUID id
+    ) {
         clientService.readActive(id);
 
         var total = contractService.sumActiveCost(id);
@@ -123,4 +176,13 @@ public class ClientController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Client, active contracts and their sum in one call ({@link ClientOverviewResponse}).
+     * The JSON is built by PostgreSQL in a single statement and sent as is.
+     */
+    @GetMapping(value = "/{id}/overview", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getOverview(@PathVariable UUID id) {
+        return ResponseEntity.ok(clientService.readActiveOverviewJson(id));
+    }
+}
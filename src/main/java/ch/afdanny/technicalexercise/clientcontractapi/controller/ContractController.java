@@ -7,16 +7,19 @@ import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
 import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
 import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
 import java.util.UUID;
 
 @Validated
 @RestController
-@RequestMapping("/v1/contracts")
+@RequestMapping("/v1") // a contract can also be addressed under its client, which tells the shard
 public class ContractController {
 
     private final ContractService contractService;
@@ -30,7 +33,7 @@ public class ContractController {
     /**
      * Create a contract
      */
-    @PostMapping
+    @PostMapping("/contracts")
     public ResponseEntity<ContractResponse> create(@Valid @RequestBody ContractRequest request) {
         Contract contract = contractService.create(
                 request.clientId(),
@@ -44,7 +47,7 @@ public class ContractController {
     /**
      * Update a contract (only cost amount)
      */
-    @PutMapping("/{id}")
+    @PutMapping("/contracts/{id}")
     public ResponseEntity<ContractResponse> update(
             @PathVariable("id") UUID id,
             @Valid @RequestBody ContractUpdateRequest request
@@ -55,4 +58,36 @@ public class ContractController {
         );
         return ResponseEntity.ok(mapper.toResponse(updated));
     }
-}
\ No newline at end of file
+
+    /**
+     * Update a contract of a client (only cost amount): with sharding, only that client's shard is asked
+     */
+    @PutMapping("/clients/{clientId}/contracts/{id}")
+    public ResponseEntity<ContractResponse> updateOfClient(
+            @PathVariable("clientId") UUID clientId,
+            @PathVariable("id") UUID id,
+            @Valid @RequestBody ContractUpdateRequest request
+    ) {
+        Contract updated = contractService.update(
+                clientId,
+                id,
+                request.costAmount()
+        );
+        return ResponseEntity.ok(mapper.toResponse(updated));
+    }
+
+    /**
+     * Active contracts expiring within the next {@code days} days (end date in ]today, today + days]),
+     * soonest first, at most {@code limit}. Served by the end_date index.
+     */
+    @GetMapping("/contracts/expiring")
+    public ResponseEntity<List<ContractResponse>> expiring(
+            @RequestParam(defaultValue = "30") @Min(1) @Max(365) int days,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit
+    ) {
+        List<ContractResponse> response = contractService.listExpiringWithin(days, limit).stream()
+                .map(mapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,23 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs a service method on a dedicated connection pool (see {@link BulkheadRoutingDataSource}),
+ * so heavy work cannot starve the interactive endpoints of connections.
+ * The value names a pool of {@code app.datasource.bulkheads}.
+ *
+ * The pool is chosen when the transaction opens its connection: the annotated method must start
+ * the transaction, a call made inside an existing transaction keeps that transaction's connection.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    String OLTP = "oltp";
+    String BULK = "bulk";
+    String REPORTING = "reporting";
+
+    String value();
+}
@@ -0,0 +1,27 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the pool named by {@link Bulkhead} for the duration of the call.
+ * Runs before the transaction interceptor, which then borrows its connection from that pool.
+ */
+@Aspect
+@Component
+@Order(1) // after SingleFlightAspect (coalesced followers never reach a pool), before the transaction advisor
+public class BulkheadAspect {
+
+    @Around("@annotation(bulkhead)")
+    public Object route(ProceedingJoinPoint pjp, Bulkhead bulkhead) throws Throwable {
+        String previous = BulkheadRoutingDataSource.enter(bulkhead.value());
+        try {
+            return pjp.proceed();
+        } finally {
+            BulkheadRoutingDataSource.restore(previous);
+        }
+    }
+}
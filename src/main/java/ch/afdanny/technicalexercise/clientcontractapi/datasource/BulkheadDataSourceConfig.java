@@ -0,0 +1,66 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One Hikari pool per shard and bulkhead, behind a single routing {@code DataSource} (used by JPA, Liquibase, ...).
+ *
+ * Every pool starts from {@code spring.datasource.*} and {@code spring.datasource.hikari.*}, then applies
+ * its shard's url and credentials ({@code app.sharding.shards.<shard>.*}) and its bulkhead's Hikari settings
+ * ({@code app.datasource.bulkheads.<name>.*}: pool size, timeouts, ...), so each shard gets every bulkhead.
+ * Pools are named after their bulkhead ({@code <shard>.<bulkhead>} when sharded): {@code hikaricp.*} metrics
+ * carry it as the "pool" tag.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ShardingProperties.class)
+public class BulkheadDataSourceConfig {
+
+    private static final String BULKHEADS = "app.datasource.bulkheads";
+
+    @Bean
+    ShardRoutingDataSource dataSource(DataSourceProperties properties, ShardingProperties sharding, Environment environment,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Set<String> names = binder.bind(BULKHEADS, Bindable.mapOf(String.class, Object.class))
+                .map(Map::keySet)
+                .orElse(Set.of(Bulkhead.OLTP));
+
+        Map<String, BulkheadRoutingDataSource> shards = new LinkedHashMap<>();
+        sharding.databases().forEach((shard, database) -> {
+            Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+            for (String name : names) {
+                HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+                binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+                binder.bind(BULKHEADS + "." + name, Bindable.ofInstance(pool));
+                if (database.url() != null) {
+                    pool.setJdbcUrl(database.url());
+                }
+                if (database.username() != null) {
+                    pool.setUsername(database.username());
+                }
+                if (database.password() != null) {
+                    pool.setPassword(database.password());
+                }
+                pool.setPoolName(sharding.enabled() ? shard + "." + name : name);
+                meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+                pools.put(name, pool);
+            }
+            shards.put(shard, new BulkheadRoutingDataSource(pools));
+        });
+        return new ShardRoutingDataSource(shards);
+    }
+}
@@ -0,0 +1,92 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routes each connection request to the pool of the current {@link Bulkhead} (thread-bound by
+ * {@link BulkheadAspect}), or to the {@link Bulkhead#OLTP} pool outside any bulkhead.
+ * An unknown pool name fails instead of silently falling back.
+ *
+ * Within a request {@link Deadline}, waiting for a free connection never outlasts the request:
+ * the pool's connection timeout is shortened to the remaining budget.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, HikariDataSource> pools;
+
+    public BulkheadRoutingDataSource(Map<String, HikariDataSource> pools) {
+        if (!pools.containsKey(Bulkhead.OLTP)) {
+            throw new IllegalArgumentException("Missing the '" + Bulkhead.OLTP + "' bulkhead pool");
+        }
+        this.pools = Map.copyOf(pools);
+        setTargetDataSources(new LinkedHashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Bulkhead.OLTP));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    /** Binds {@code pool} to the current thread; returns the previous binding, to restore afterwards. */
+    static String enter(String pool) {
+        String previous = CURRENT.get();
+        CURRENT.set(pool);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return super.getConnection();
+        }
+        HikariDataSource pool = (HikariDataSource) determineTargetDataSource();
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new SQLTransientConnectionException(pool.getPoolName() + " - request deadline exceeded before acquiring a connection");
+        }
+        // null until the pool has been started by its first getConnection()
+        if (remaining < pool.getConnectionTimeout() && pool.getHikariPoolMXBean() instanceof HikariPool hikariPool) {
+            return hikariPool.getConnection(remaining);
+        }
+        return pool.getConnection();
+    }
+
+    /** A new connection with the pools' url and credentials, not taken from any pool. */
+    Connection openDedicatedConnection() throws SQLException {
+        HikariDataSource pool = pools.get(Bulkhead.OLTP);
+        return DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,55 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Binds the shard owning the {@link ShardKey} argument for the duration of the call.
+ * Runs before the transaction interceptor, which then borrows its connection from that shard.
+ */
+@Aspect
+@Component
+@Order(1) // like BulkheadAspect: after SingleFlightAspect, before the transaction advisor
+@RequiredArgsConstructor
+public class ShardAspect {
+
+    private final Shards shards;
+    private final ConcurrentMap<Method, Integer> keyPositions = new ConcurrentHashMap<>();
+
+    @Around("execution(* *(.., @ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Object key = pjp.getArgs()[keyPositions.computeIfAbsent(method, ShardAspect::keyPosition)];
+        if (!(key instanceof UUID clientId)) {
+            return pjp.proceed(); // no key: nothing can be found, the first shard answers
+        }
+        String previous = shards.bind(shards.shardOf(clientId));
+        try {
+            return pjp.proceed();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    private static int keyPosition(Method method) {
+        var annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (var annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+}
@@ -0,0 +1,14 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the client id parameter of a service method: the call runs on the shard owning that client
+ * (see {@link ShardAspect}). Like {@link Bulkhead}, the shard is chosen when the transaction opens its
+ * connection, so the annotated method must start the transaction.
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
@@ -0,0 +1,39 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Applies the Liquibase changelog to every shard but the first, which Spring Boot's own migration
+ * handles through the default target of {@link ShardRoutingDataSource}. A joining shard gets its schema
+ * the first time an instance (or {@link ShardSplitter}) starts with it configured.
+ */
+@RequiredArgsConstructor
+class ShardMigrations implements InitializingBean {
+
+    private final ShardRoutingDataSource dataSource;
+    private final SpringLiquibase migration; // null when spring.liquibase.enabled=false
+    private final ResourceLoader resourceLoader;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (migration == null) {
+            return;
+        }
+        var others = dataSource.shards().values().stream().skip(1).toList();
+        for (BulkheadRoutingDataSource shard : others) {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(shard);
+            liquibase.setResourceLoader(resourceLoader);
+            liquibase.setChangeLog(migration.getChangeLog());
+            liquibase.setContexts(migration.getContexts());
+            liquibase.setLabelFilter(migration.getLabelFilter());
+            liquibase.setDefaultSchema(migration.getDefaultSchema());
+            liquibase.setDatabaseChangeLogTable(migration.getDatabaseChangeLogTable());
+            liquibase.setDatabaseChangeLogLockTable(migration.getDatabaseChangeLogLockTable());
+            liquibase.afterPropertiesSet();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consistent hashing of client ids onto shards. Each shard owns {@code virtualNodes} points of a 64-bit ring;
+ * a key belongs to the first point at or after its hash. Adding a shard only moves the keys the new shard
+ * takes over (about 1/N of them, evenly from every other shard), nothing moves between existing shards.
+ *
+ * The hash functions define where every stored client lives: they must never change.
+ */
+public final class ShardRing {
+
+    private final List<String> shards;
+    private final long[] points;
+    private final String[] owners;
+
+    public ShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard and one virtual node per shard");
+        }
+        this.shards = List.copyOf(shards);
+        record Point(long hash, String owner) {}
+        Point[] all = new Point[this.shards.size() * virtualNodes];
+        int n = 0;
+        for (String shard : this.shards) {
+            for (int v = 0; v < virtualNodes; v++) {
+                all[n++] = new Point(hash(shard + "#" + v), shard);
+            }
+        }
+        // ties (practically impossible) are broken by name, so every instance builds the same ring
+        Arrays.sort(all, (a, b) -> a.hash() != b.hash() ? Long.compare(a.hash(), b.hash()) : a.owner().compareTo(b.owner()));
+        this.points = new long[all.length];
+        this.owners = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            points[i] = all[i].hash();
+            owners[i] = all[i].owner();
+        }
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardOf(UUID key) {
+        if (shards.size() == 1) {
+            return shards.getFirst();
+        }
+        long h = mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits()));
+        int i = Arrays.binarySearch(points, h);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /** FNV-1a 64 of the UTF-8 bytes, then mixed. */
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /** MurmurHash3 64-bit finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
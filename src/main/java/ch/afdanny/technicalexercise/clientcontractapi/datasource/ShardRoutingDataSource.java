@@ -0,0 +1,89 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes each connection request to the database of the current shard (thread-bound by {@link Shards}
+ * and {@link ShardAspect}), then to the pool of the current {@link Bulkhead} within that shard.
+ * Outside any shard (startup, schema migration, health checks), connections come from the first shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, BulkheadRoutingDataSource> shards;
+
+    public ShardRoutingDataSource(Map<String, BulkheadRoutingDataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(shards.values().iterator().next());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /** Databases per shard name, in configuration order. */
+    Map<String, BulkheadRoutingDataSource> shards() {
+        return shards;
+    }
+
+    /** Shard names, in configuration order. */
+    public Set<String> shardNames() {
+        return shards.keySet();
+    }
+
+    /**
+     * Opens a connection to {@code shard} outside the pools, for long-lived sessions (e.g. LISTEN)
+     * that must neither hold a pooled connection nor be recycled by the pool. The caller closes it.
+     */
+    public Connection openDedicatedConnection(String shard) throws SQLException {
+        BulkheadRoutingDataSource database = shards.get(shard);
+        if (database == null) {
+            throw new IllegalArgumentException("Unknown shard '" + shard + "'");
+        }
+        return database.openDedicatedConnection();
+    }
+
+    /** Shard the calling thread's connections come from: the bound one, else the first configured. */
+    public String currentShard() {
+        String current = CURRENT.get();
+        return current != null ? current : shards.keySet().iterator().next();
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    /** Binds {@code shard} to the current thread; returns the previous binding, to restore afterwards. */
+    static String enter(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(BulkheadRoutingDataSource::close);
+    }
+}
@@ -0,0 +1,179 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Online shard split: moves the clients (with their person / company row and their contracts) that the
+ * target ring, joining shards included, assigns to another shard than the one storing them.
+ *
+ * Phases, each one a separate run:
+ *  - {@link Phase#COPY}: copies moving clients to their new shard while the old ring serves; repeatable,
+ *    a rerun refreshes the copies.
+ *  - {@link Phase#CATCH_UP}: after every instance serves the new ring, copies what was created or changed
+ *    (soft deletes included) on the old shard in between.
+ *  - {@link Phase#CLEANUP}: deletes moved clients from their old shard, once every row is found on the new one,
+ *    at least as recent.
+ *
+ * A copied row only replaces the destination's one if it is newer ({@code updated_at}, bumped by every UPDATE,
+ * see changelog-006): writes the new shard served after the switch are kept.
+ *
+ * Clients are read by id ranges of {@code batchSize}; each batch is one transaction per destination shard,
+ * on the {@link Bulkhead#BULK} pools.
+ */
+@Slf4j
+public class ShardSplitter {
+
+    public enum Phase { COPY, CATCH_UP, CLEANUP }
+
+    /** Tables holding client data, parents first. */
+    private static final List<String> CLIENT_TABLES = List.of("client", "person_client", "company_client");
+
+    /** Every table a moving client has rows in. */
+    private static final List<String> TABLES = List.of("client", "person_client", "company_client", "contract");
+
+    private final Map<String, BulkheadRoutingDataSource> databases;
+    private final ShardRing target;
+    private final int batchSize;
+
+    public ShardSplitter(ShardRoutingDataSource dataSource, ShardRing target, int batchSize) {
+        this.databases = dataSource.shards();
+        this.target = target;
+        this.batchSize = batchSize;
+    }
+
+    /** Runs {@code phase} over every shard; returns the number of clients moved (or removed) per source shard. */
+    public Map<String, Integer> run(Phase phase) {
+        String previous = BulkheadRoutingDataSource.enter(Bulkhead.BULK);
+        try {
+            Map<String, Integer> moved = new LinkedHashMap<>();
+            for (String source : databases.keySet()) {
+                moved.put(source, split(phase, source));
+                log.info("Shard split {}: {} clients from shard '{}'", phase, moved.get(source), source);
+            }
+            return moved;
+        } finally {
+            BulkheadRoutingDataSource.restore(previous);
+        }
+    }
+
+    private int split(Phase phase, String source) {
+        var jdbc = new NamedParameterJdbcTemplate(databases.get(source));
+        int moved = 0;
+        UUID after = new UUID(0, 0);
+        List<UUID> batch;
+        do {
+            batch = jdbc.getJdbcTemplate().queryForList(
+                    "SELECT id FROM client WHERE id > ? ORDER BY id LIMIT ?", UUID.class, after, batchSize);
+            Map<String, List<UUID>> byOwner = new LinkedHashMap<>();
+            for (UUID id : batch) {
+                String owner = target.shardOf(id);
+                if (!owner.equals(source)) {
+                    byOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(id);
+                }
+            }
+            for (var move : byOwner.entrySet()) {
+                if (phase == Phase.CLEANUP) {
+                    delete(source, move.getKey(), move.getValue());
+                } else {
+                    copy(source, move.getKey(), move.getValue());
+                }
+                moved += move.getValue().size();
+            }
+            if (!batch.isEmpty()) {
+                after = batch.getLast();
+            }
+        } while (batch.size() == batchSize);
+        return moved;
+    }
+
+    private void copy(String source, String destination, List<UUID> ids) {
+        var from = new NamedParameterJdbcTemplate(databases.get(source));
+        var to = new JdbcTemplate(databases.get(destination));
+        var params = new MapSqlParameterSource("ids", ids);
+        transaction(destination).executeWithoutResult(tx -> {
+            for (String table : CLIENT_TABLES) {
+                copyRows(from, to, table, "SELECT * FROM " + table + " WHERE id IN (:ids)", params);
+            }
+            copyRows(from, to, "contract", "SELECT * FROM contract WHERE client_id IN (:ids)", params);
+        });
+    }
+
+    /** Inserts missing rows and updates older ones, keyed by id, whatever the table's other columns. */
+    private static void copyRows(NamedParameterJdbcTemplate from, JdbcTemplate to, String table, String select,
+                                 MapSqlParameterSource params) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = from.query(select, params, rs -> {
+            var meta = rs.getMetaData();
+            for (int c = 1; c <= meta.getColumnCount(); c++) {
+                columns.add(meta.getColumnName(c));
+            }
+            List<Object[]> values = new ArrayList<>();
+            while (rs.next()) {
+                Object[] row = new Object[columns.size()];
+                for (int c = 0; c < row.length; c++) {
+                    row[c] = rs.getObject(c + 1);
+                }
+                values.add(row);
+            }
+            return values;
+        });
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        List<String> updates = columns.stream().filter(c -> !c.equals("id")).map(c -> c + " = EXCLUDED." + c).toList();
+        to.batchUpdate("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ") ON CONFLICT (id) DO UPDATE SET "
+                + String.join(", ", updates) + " WHERE " + table + ".updated_at < EXCLUDED.updated_at", rows);
+    }
+
+    private void delete(String source, String destination, List<UUID> ids) {
+        var from = new NamedParameterJdbcTemplate(databases.get(source));
+        var to = new NamedParameterJdbcTemplate(databases.get(destination));
+        var params = new MapSqlParameterSource("ids", ids);
+        transaction(source).executeWithoutResult(tx -> {
+            // nothing is deleted unless every row is on the destination, as recent: CATCH_UP must have run
+            for (String table : TABLES) {
+                String key = table.equals("contract") ? "client_id" : "id";
+                Map<UUID, OffsetDateTime> present = updatedAt(from,
+                        "SELECT id, updated_at FROM " + table + " WHERE " + key + " IN (:ids)", params);
+                if (present.isEmpty()) {
+                    continue;
+                }
+                Map<UUID, OffsetDateTime> copied = updatedAt(to, "SELECT id, updated_at FROM " + table + " WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", present.keySet()));
+                long behind = present.entrySet().stream()
+                        .filter(row -> !copied.containsKey(row.getKey()) || copied.get(row.getKey()).isBefore(row.getValue()))
+                        .count();
+                if (behind > 0) {
+                    throw new IllegalStateException(behind + " " + table + " rows of shard '" + source + "' are missing or older"
+                            + " on shard '" + destination + "': run " + Phase.CATCH_UP + " first");
+                }
+            }
+            from.update("DELETE FROM contract WHERE client_id IN (:ids)", params);
+            for (String table : CLIENT_TABLES.reversed()) {
+                from.update("DELETE FROM " + table + " WHERE id IN (:ids)", params);
+            }
+        });
+    }
+
+    private static Map<UUID, OffsetDateTime> updatedAt(NamedParameterJdbcTemplate jdbc, String select,
+                                                       MapSqlParameterSource params) {
+        Map<UUID, OffsetDateTime> rows = new HashMap<>();
+        jdbc.query(select, params, rs -> {
+            rows.put(rs.getObject(1, UUID.class), rs.getObject(2, OffsetDateTime.class));
+        });
+        return rows;
+    }
+
+    private TransactionTemplate transaction(String shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(databases.get(shard)));
+    }
+}
@@ -0,0 +1,41 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Client routing ({@link Shards}, {@link ShardAspect}) and shard tooling: schema migration of every shard,
+ * and the {@link ShardSplitter} run selected by {@code app.sharding.split.phase}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShardingConfig {
+
+    @Bean
+    Shards shards(ShardingProperties sharding) {
+        return new Shards(sharding.servingRing());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+    ShardMigrations shardMigrations(ShardRoutingDataSource dataSource, ObjectProvider<SpringLiquibase> liquibase,
+                                    ResourceLoader resourceLoader) {
+        return new ShardMigrations(dataSource, liquibase.getIfAvailable(), resourceLoader);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sharding.split.phase")
+    ApplicationRunner shardSplit(ShardRoutingDataSource dataSource, ShardingProperties sharding, ConfigurableApplicationContext context) {
+        return args -> {
+            new ShardSplitter(dataSource, sharding.targetRing(), sharding.split().batchSize()).run(sharding.split().phase());
+            // a one-off run: stop instead of serving traffic
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
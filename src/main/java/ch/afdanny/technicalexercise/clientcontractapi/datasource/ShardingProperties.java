@@ -0,0 +1,63 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client sharding settings ({@code app.sharding.*}).
+ *
+ * @param enabled      false: a single database, {@code spring.datasource}
+ * @param virtualNodes points of each shard on the hash ring; part of the data placement, never change it on a live system
+ * @param shards       databases by shard name; unset url / username / password fall back to {@code spring.datasource}
+ * @param joining      configured shards not serving yet: reachable by {@link ShardSplitter}, absent from the ring
+ * @param split        {@link ShardSplitter} run, instead of serving traffic, when a phase is set
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("128") int virtualNodes,
+        Map<String, Shard> shards,
+        List<String> joining,
+        @DefaultValue Split split
+) {
+    /** Name of the only shard when sharding is disabled. */
+    public static final String DEFAULT_SHARD = "default";
+
+    public ShardingProperties {
+        shards = shards == null ? Map.of() : new LinkedHashMap<>(shards);
+        joining = joining == null ? List.of() : List.copyOf(joining);
+        if (enabled && shards.isEmpty()) {
+            throw new IllegalArgumentException("app.sharding.shards must list at least one shard when sharding is enabled");
+        }
+        if (!shards.keySet().containsAll(joining)) {
+            throw new IllegalArgumentException("app.sharding.joining names unknown shards: " + joining);
+        }
+    }
+
+    public record Shard(String url, String username, String password) {}
+
+    /**
+     * @param phase     split phase to run, {@code null} to serve traffic
+     * @param batchSize clients moved per transaction
+     */
+    public record Split(ShardSplitter.Phase phase, @DefaultValue("500") int batchSize) {}
+
+    /** Every database to connect to, joining shards included, in configuration order. */
+    public Map<String, Shard> databases() {
+        return enabled ? shards : Map.of(DEFAULT_SHARD, new Shard(null, null, null));
+    }
+
+    /** Ring routing the requests: serving shards only. */
+    public ShardRing servingRing() {
+        return new ShardRing(databases().keySet().stream().filter(s -> !joining.contains(s)).toList(), virtualNodes);
+    }
+
+    /** Ring once the joining shards serve: where {@link ShardSplitter} moves the clients to. */
+    public ShardRing targetRing() {
+        return new ShardRing(databases().keySet(), virtualNodes);
+    }
+}
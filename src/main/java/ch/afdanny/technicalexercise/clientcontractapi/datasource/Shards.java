@@ -0,0 +1,119 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on a given shard, or on every serving shard in parallel (scatter-gather).
+ *
+ * Scattered work keeps the caller's {@link Bulkhead} and request {@link Deadline}: each shard borrows from
+ * its own pool of that bulkhead, and the caller stops waiting (504) when the deadline expires.
+ * Each shard runs its own transactions: a scatter is not atomic across shards.
+ */
+public class Shards implements AutoCloseable {
+
+    /** PostgreSQL's uuid order (unsigned bytes), to merge per-shard results sorted by id. */
+    public static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ShardRing ring;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public Shards(ShardRing ring) {
+        this.ring = ring;
+    }
+
+    public String shardOf(UUID clientId) {
+        return ring.shardOf(clientId);
+    }
+
+    /** Serving shards, in configuration order. */
+    public List<String> names() {
+        return ring.shards();
+    }
+
+    /** Runs {@code work} with connections from {@code shard}. */
+    public <T> T on(String shard, Supplier<T> work) {
+        String previous = bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    /** Runs {@code work} on every serving shard in parallel; results by shard, in configuration order. */
+    public <T> Map<String, T> onAll(Supplier<T> work) {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (names().size() == 1) {
+            results.put(names().getFirst(), on(names().getFirst(), work));
+            return results;
+        }
+        Deadline deadline = Deadline.current();
+        String bulkhead = BulkheadRoutingDataSource.current();
+        Map<String, Future<T>> futures = new LinkedHashMap<>();
+        for (String shard : names()) {
+            futures.put(shard, executor.submit(() -> {
+                Deadline previousDeadline = Deadline.enter(deadline);
+                String previousBulkhead = BulkheadRoutingDataSource.enter(bulkhead);
+                try {
+                    return on(shard, work);
+                } finally {
+                    BulkheadRoutingDataSource.restore(previousBulkhead);
+                    Deadline.restore(previousDeadline);
+                }
+            }));
+        }
+        try {
+            for (var future : futures.entrySet()) {
+                results.put(future.getKey(), await(future.getValue(), deadline));
+            }
+            return results;
+        } finally {
+            // no interrupt: it would close the connection; the statement timeout stops late queries
+            futures.values().forEach(f -> f.cancel(false));
+        }
+    }
+
+    /** Binds {@code shard}, unless the thread already works on another one (a transaction never spans shards). */
+    String bind(String shard) {
+        String current = ShardRoutingDataSource.current();
+        if (current != null && !current.equals(shard)) {
+            throw new IllegalStateException("Already working on shard '" + current + "', cannot switch to '" + shard + "'");
+        }
+        return ShardRoutingDataSource.enter(shard);
+    }
+
+    private static <T> T await(Future<T> future, Deadline deadline) {
+        try {
+            return deadline == null ? future.get() : future.get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Request deadline exceeded while waiting for the shards");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,54 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which the current request's caller no longer waits for an answer.
+ * Bound to the request thread by {@link DeadlineFilter}; pool acquisition ({@code BulkheadRoutingDataSource})
+ * and transactions ({@link DeadlineJpaTransactionManager}) only spend what is left of it.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /** Deadline of the request being served by this thread, {@code null} outside a request. */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /** Binds {@code deadline} to the current thread; returns the previous binding, to restore afterwards. */
+    public static Deadline enter(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    public static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** Milliseconds left, rounded up; zero or negative once expired. */
+    public long remainingMillis() {
+        long nanos = expiresAtNanos - System.nanoTime();
+        return nanos <= 0 ? nanos / 1_000_000 : TimeUnit.NANOSECONDS.toMillis(nanos + 999_999);
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,37 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Request deadlines ({@code app.deadline.enabled}, on by default): {@link DeadlineFilter} on the API endpoints
+ * and {@link DeadlineJpaTransactionManager} in place of Spring Boot's {@code transactionManager}.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties) {
+        var registration = new FilterRegistrationBean<>(new DeadlineFilter(properties));
+        registration.addUrlPatterns("/v1/*");
+        // the budget starts as soon as the request is in, rate limiting included
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        var transactionManager = new DeadlineJpaTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,66 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.time.Instant;
+
+/**
+ * Maps time budget failures to distinct statuses:
+ *  - 503 Service Unavailable (with Retry-After) when no connection could be obtained before the request deadline
+ *    ran out: the server is saturated. Other connection failures (database down, bad credentials, pool timeout
+ *    shorter than the deadline) are not a time budget matter and take the default error handling;
+ *  - 504 Gateway Timeout when the deadline ran out in, or before, a query: the work itself took too long.
+ *
+ * Metrics:
+ *  - request.deadline.exceeded{stage=connection|query}
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class DeadlineExceptionHandler {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ErrorResponse> handleNoConnection(RuntimeException ex) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null || !deadline.isExpired()) {
+            throw ex; // rethrown as is: left unresolved by this advice
+        }
+        count("connection");
+        var status = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body(status, "No database connection available in time"));
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<ErrorResponse> handleTimeout(RuntimeException ex) {
+        count("query");
+        var status = HttpStatus.GATEWAY_TIMEOUT;
+        return ResponseEntity.status(status).body(body(status, "Request deadline exceeded"));
+    }
+
+    private void count(String stage) {
+        meterRegistry.ifAvailable(registry -> Counter.builder("request.deadline.exceeded")
+                .tag("stage", stage)
+                .register(registry)
+                .increment());
+    }
+
+    private static ErrorResponse body(HttpStatus status, String message) {
+        return new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(), message);
+    }
+}
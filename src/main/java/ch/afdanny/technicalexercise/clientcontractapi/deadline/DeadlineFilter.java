@@ -0,0 +1,77 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives each request a {@link Deadline}: the caller's budget from the deadline header (milliseconds),
+ * else the default of the first matching endpoint pattern, else the global default; never above the maximum.
+ * A malformed header is ignored.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private record EndpointDefault(PathPattern pattern, Duration timeout) {}
+
+    private final DeadlineProperties properties;
+    private final List<EndpointDefault> endpointDefaults = new ArrayList<>();
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+        for (Map.Entry<String, Duration> e : properties.endpoints().entrySet()) {
+            endpointDefaults.add(new EndpointDefault(PathPatternParser.defaultInstance.parse(e.getKey()), e.getValue()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline previous = Deadline.enter(Deadline.after(budget(request)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    Duration budget(HttpServletRequest request) {
+        Duration budget = fromHeader(request.getHeader(properties.header()));
+        if (budget == null) {
+            budget = endpointDefault(request.getRequestURI().substring(request.getContextPath().length()));
+        }
+        return budget.compareTo(properties.maxTimeout()) > 0 ? properties.maxTimeout() : budget;
+    }
+
+    private static Duration fromHeader(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.strip());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Duration endpointDefault(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (EndpointDefault d : endpointDefaults) {
+            if (d.pattern().matches(container)) {
+                return d.timeout();
+            }
+        }
+        return properties.defaultTimeout();
+    }
+}
@@ -0,0 +1,63 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+
+/**
+ * {@link JpaTransactionManager} whose transactions never outlive the request {@link Deadline}:
+ * <ul>
+ *   <li>the transaction timeout is capped by the remaining budget (rounded up to the second), which Spring
+ *       turns into the JDBC query timeout of every query run in it;</li>
+ *   <li>{@code SET LOCAL statement_timeout} gives PostgreSQL the exact remaining budget, so a statement
+ *       still running when the caller gives up is cancelled by the server itself.</li>
+ * </ul>
+ * A transaction starting with an expired deadline fails with {@link TransactionTimedOutException}.
+ * Outside a request (schedulers, startup), transactions behave as usual.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new TransactionTimedOutException("Request deadline exceeded before the transaction started");
+        }
+        int seconds = (int) ((remaining + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? seconds : Math.min(timeout, seconds);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        var holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        try {
+            // at least 1 ms: 0 would disable the timeout
+            long millis = Math.max(1, deadline.remainingMillis());
+            holder.getEntityManager().unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL statement_timeout = " + millis);
+                }
+            });
+        } catch (RuntimeException ex) {
+            holder.getEntityManager().getTransaction().rollback();
+            doCleanupAfterCompletion(transaction);
+            throw new CannotCreateTransactionException("Could not apply the request deadline to the transaction", ex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request deadline settings ({@code app.deadline.*}).
+ *
+ * @param header         request header carrying the caller's budget in milliseconds
+ * @param defaultTimeout budget of requests without the header and without an endpoint default
+ * @param maxTimeout     upper bound of any budget, header included
+ * @param endpoints      per-endpoint defaults: path pattern (without the context path) to budget, first match wins
+ */
+@ConfigurationProperties("app.deadline")
+public record DeadlineProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("X-Request-Timeout") String header,
+        @DefaultValue("5s") Duration defaultTimeout,
+        @DefaultValue("30s") Duration maxTimeout,
+        Map<String, Duration> endpoints
+) {
+    public DeadlineProperties {
+        endpoints = endpoints == null ? Map.of() : new LinkedHashMap<>(endpoints);
+    }
+}
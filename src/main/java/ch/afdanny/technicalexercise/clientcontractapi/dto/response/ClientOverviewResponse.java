@@ -0,0 +1,13 @@
+package ch.afdanny.technicalexercise.clientcontractapi.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Client page in one call: the same DTOs as {@code /v1/clients/{id}}, {@code /contracts/active} and {@code /contracts/active/sum}.
+ */
+public record ClientOverviewResponse(
+        ClientResponse client,
+        List<ContractResponse> activeContracts,
+        BigDecimal totalCostAmount
+) {}
@@ -0,0 +1,14 @@
+package ch.afdanny.technicalexercise.clientcontractapi.dto.response;
+
+import java.util.List;
+
+/**
+ * @param nextCursor pass as {@code after} to get the next page; {@code null} on the last page and when truncated
+ * @param truncated  the query matched more clients than are ranked: the items may miss better matches,
+ *                   refine the query to see them
+ */
+public record ClientSearchResponse(
+        List<ClientResponse> items,
+        String nextCursor,
+        boolean truncated
+) {}
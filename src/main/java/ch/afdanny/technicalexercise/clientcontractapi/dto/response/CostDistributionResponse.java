@@ -0,0 +1,37 @@
+package ch.afdanny.technicalexercise.clientcontractapi.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost amounts of the active contracts: all of them and per client type.
+ * Percentiles are within {@code relativeAccuracy} of the exact values; {@code rebuiltAt} is the last full recount.
+ */
+public record CostDistributionResponse(
+        double relativeAccuracy,
+        Instant rebuiltAt,
+        Distribution all,
+        Map<String, Distribution> byClientType
+) {
+
+    public record Distribution(
+            long count,
+            List<Percentile> percentiles,
+            List<HistogramBin> histogram
+    ) {}
+
+    /** {@code value} is null when there is no contract. */
+    public record Percentile(
+            double quantile,
+            BigDecimal value
+    ) {}
+
+    /** Contracts costing within [lowerBound, upperBound[. */
+    public record HistogramBin(
+            BigDecimal lowerBound,
+            BigDecimal upperBound,
+            long count
+    ) {}
+}
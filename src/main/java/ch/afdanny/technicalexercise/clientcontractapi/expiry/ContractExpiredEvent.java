@@ -0,0 +1,20 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published once per contract when the day rollover reaches its end date (the contract stops being active).
+ * Listeners receive it after the rollover transaction has committed.
+ */
+public record ContractExpiredEvent(
+        UUID contractId,
+        UUID clientId,
+        LocalDate endDate,
+        BigDecimal costAmount,
+        ClientType clientType
+) {
+}
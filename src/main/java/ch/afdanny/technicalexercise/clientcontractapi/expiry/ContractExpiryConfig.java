@@ -0,0 +1,31 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Schedules the contract rollover ({@code app.contract-expiry.enabled}, on by default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@EnableConfigurationProperties(ContractExpiryProperties.class)
+@ConditionalOnProperty(name = "app.contract-expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ContractExpiryConfig {
+
+    @Bean
+    ContractExpiryScheduler contractExpiryScheduler(ContractExpiryService expiryService, Shards shards) {
+        return new ContractExpiryScheduler(expiryService, shards, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    ContractExpiryMetrics contractExpiryMetrics(MeterRegistry meterRegistry) {
+        return new ContractExpiryMetrics(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Aggregates derived from expiries:
+ *  - contract.expired: number of contracts that stopped being active
+ *  - contract.expired.cost: their cost amounts (total = cost no longer counted in active sums)
+ */
+public class ContractExpiryMetrics {
+
+    private final Counter expired;
+    private final DistributionSummary expiredCost;
+
+    public ContractExpiryMetrics(MeterRegistry registry) {
+        this.expired = Counter.builder("contract.expired").register(registry);
+        this.expiredCost = DistributionSummary.builder("contract.expired.cost").register(registry);
+    }
+
+    @TransactionalEventListener
+    public void onExpired(ContractExpiredEvent event) {
+        expired.increment();
+        expiredCost.record(event.costAmount().doubleValue());
+    }
+}
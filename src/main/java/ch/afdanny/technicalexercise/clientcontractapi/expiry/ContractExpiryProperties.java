@@ -0,0 +1,17 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Contract expiry settings ({@code app.contract-expiry.*}).
+ *
+ * @param enabled runs the rollover on schedule and once at startup (catch-up)
+ * @param cron    rollover schedule, in the server time zone (the one "today" is computed in)
+ */
+@ConfigurationProperties("app.contract-expiry")
+public record ContractExpiryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5 0 0 * * *") String cron
+) {
+}
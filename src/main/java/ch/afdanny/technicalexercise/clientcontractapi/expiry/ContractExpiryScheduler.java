@@ -0,0 +1,45 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Runs the contract rollover after midnight, and once at startup to catch up on the days
+ * no instance was running for. Each day is its own transaction; each shard keeps its own watermark.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ContractExpiryScheduler {
+
+    private final ContractExpiryService expiryService;
+    private final Shards shards;
+    private final Clock clock;
+
+    @Scheduled(cron = "${app.contract-expiry.cron:5 0 0 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rollover() {
+        LocalDate today = LocalDate.now(clock);
+        for (String shard : shards.names()) {
+            try {
+                shards.on(shard, () -> {
+                    LocalDate day;
+                    while ((day = expiryService.expireNextDay(today)) != null) {
+                        log.info("Contract expiry processed through {} on shard '{}'", day, shard);
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // data access, transaction or deadline failure: the watermark has not moved, the next run
+                // resumes from the same day; never propagated, it would abort startup or the other shards
+                log.warn("Contract expiry rollover failed on shard '{}'", shard, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Bulkhead;
+import ch.afdanny.technicalexercise.clientcontractapi.model.JobWatermark;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.JobWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Day rollover of contracts: a contract stops being active on its end date (active = endDate IS NULL OR endDate > today),
+ * which no write marks. The job keeps a watermark (last processed day) and, for each day after it up to today,
+ * publishes a {@link ContractExpiredEvent} for exactly the contracts ending that day.
+ *
+ * Contracts written with an end date already reached (e.g. closed when their client is deleted) were never
+ * active past the watermark and are not reported.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContractExpiryService {
+
+    static final String WATERMARK = "contract-expiry";
+
+    private final JobWatermarkRepository watermarkRepository;
+    private final ContractRepository contractRepository;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Processes the day following the watermark if it is not after {@code today}, then advances the watermark.
+     * The watermark row stays locked until commit, so concurrent instances process each day exactly once.
+     * On the very first run, the watermark starts the day before {@code today} (no replay of past expiries).
+     *
+     * @return the day processed, or {@code null} when the watermark has already reached {@code today}
+     */
+    @Bulkhead(Bulkhead.BULK)
+    @Transactional
+    public LocalDate expireNextDay(LocalDate today) {
+        watermarkRepository.insertIfAbsent(WATERMARK, today.minusDays(1));
+        JobWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).orElseThrow();
+        if (!watermark.getProcessedThrough().isBefore(today)) {
+            return null;
+        }
+
+        LocalDate day = watermark.getProcessedThrough().plusDays(1);
+        contractRepository.findExpiredOn(day).forEach(events::publishEvent);
+        watermark.setProcessedThrough(day);
+        return day;
+    }
+}
@@ -0,0 +1,24 @@
+package ch.afdanny.technicalexercise.clientcontractapi.groupcommit;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardRoutingDataSource;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Group commit of contract creates and cost updates ({@code app.group-commit.enabled}, off by default:
+ * the {@link GroupCommitter} then starts no writer and the service commits each write on its own).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class GroupCommitConfig {
+
+    @Bean
+    GroupCommitter groupCommitter(ShardRoutingDataSource dataSource, Shards shards, TransactionTemplate transactionTemplate,
+                                  GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        return new GroupCommitter(dataSource, shards, transactionTemplate, properties, meterRegistry);
+    }
+}
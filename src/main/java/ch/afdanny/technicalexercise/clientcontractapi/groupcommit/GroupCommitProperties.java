@@ -0,0 +1,22 @@
+package ch.afdanny.technicalexercise.clientcontractapi.groupcommit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Group commit settings ({@code app.group-commit.*}).
+ *
+ * @param maxGroupSize  writes committed together at most
+ * @param maxDelay      longest wait for more writes once a group has its first one
+ * @param queueCapacity writes waiting per shard; beyond, callers get 503
+ */
+@ConfigurationProperties("app.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64") int maxGroupSize,
+        @DefaultValue("1ms") Duration maxDelay,
+        @DefaultValue("1000") int queueCapacity
+) {
+}
@@ -0,0 +1,228 @@
+package ch.afdanny.technicalexercise.clientcontractapi.groupcommit;
+
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardRoutingDataSource;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Commits concurrent small writes together: one transaction, hence one WAL flush, per group instead of per write.
+ *
+ * Each shard has a queue and a writer thread. The writer takes the queued writes, waiting up to {@code max-delay}
+ * for more once it has one, up to {@code max-group-size}, runs them in order in one transaction and commits.
+ * A caller is released with its own result only once the commit has returned, so a write answered is durable.
+ *
+ * A write that fails rolls back its group: the caller gets its exception and the others run again without it.
+ * A write must therefore only change the database, through the current transaction. A write whose caller's
+ * deadline has already expired is not run (504). A failed commit fails every write of the group.
+ *
+ * The writers start before the web server and stop after it has drained its requests ({@link #getPhase()}).
+ * Outside of that window, a write is committed on its own in the caller's thread.
+ *
+ * Metrics:
+ *  - groupcommit.group.size{shard}: writes per commit
+ *  - groupcommit.commit{shard}: duration of a group's transaction, reruns included
+ *  - groupcommit.queued{shard}: writes waiting
+ */
+@Slf4j
+public class GroupCommitter implements SmartLifecycle {
+
+    private record Write<T>(Supplier<T> work, CompletableFuture<T> result, Deadline deadline) {}
+
+    private final ShardRoutingDataSource dataSource;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, BlockingQueue<Write<?>>> queues = new LinkedHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final List<Thread> threads = new ArrayList<>();
+
+    public GroupCommitter(ShardRoutingDataSource dataSource, Shards shards, TransactionTemplate transactionTemplate,
+                          GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (String shard : dataSource.shardNames()) {
+            var queue = new ArrayBlockingQueue<Write<?>>(properties.queueCapacity());
+            queues.put(shard, queue);
+            Gauge.builder("groupcommit.queued", queue, BlockingQueue::size).tag("shard", shard).register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Runs {@code work} in the next group of the current shard and returns its result once that group has committed.
+     * Waits at most until the request deadline (504 afterwards: the write may still commit).
+     * When the writers are not running, {@code work} runs in its own transaction instead.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (!running.get()) {
+            return transactionTemplate.execute(tx -> work.get());
+        }
+        var write = new Write<>(work, new CompletableFuture<T>(), Deadline.current());
+        BlockingQueue<Write<?>> queue = queues.get(dataSource.currentShard());
+        if (!queue.offer(write)) {
+            throw new CannotCreateTransactionException("Group commit queue full");
+        }
+        if (!running.get() && queue.remove(write)) {
+            // stopped meanwhile: no writer will take it
+            return transactionTemplate.execute(tx -> work.get());
+        }
+        return await(write);
+    }
+
+    /**
+     * Below the web server's lifecycles: started before it accepts requests, stopped only once its graceful
+     * shutdown has let the requests in progress finish, so their writes still get a writer.
+     */
+    @Override
+    public int getPhase() {
+        // graceful shutdown is SMART_LIFECYCLE_PHASE, the web server start / stop 1024 below it
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        queues.forEach((shard, queue) ->
+                threads.add(Thread.ofPlatform().daemon().name("group-commit-" + shard).start(() -> drain(shard, queue))));
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+        queues.values().forEach(queue -> {
+            List<Write<?>> left = new ArrayList<>();
+            queue.drainTo(left);
+            left.forEach(w -> w.result().completeExceptionally(new CannotCreateTransactionException("Shutting down")));
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void drain(String shard, BlockingQueue<Write<?>> queue) {
+        var groupSize = DistributionSummary.builder("groupcommit.group.size").tag("shard", shard).register(meterRegistry);
+        var commit = Timer.builder("groupcommit.commit").tag("shard", shard).publishPercentileHistogram().register(meterRegistry);
+        long maxDelay = properties.maxDelay().toNanos();
+        while (running.get()) {
+            List<Write<?>> group = new ArrayList<>(properties.maxGroupSize());
+            try {
+                group.add(queue.take());
+                long end = System.nanoTime() + maxDelay;
+                while (group.size() < properties.maxGroupSize()) {
+                    if (queue.drainTo(group, properties.maxGroupSize() - group.size()) > 0) {
+                        continue;
+                    }
+                    Write<?> next = queue.poll(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                group.forEach(w -> w.result().completeExceptionally(new CannotCreateTransactionException("Shutting down")));
+                return;
+            }
+            groupSize.record(group.size());
+            commit.record(() -> commit(shard, group));
+        }
+    }
+
+    /** Commits {@code group}, without the writes that fail. */
+    private void commit(String shard, List<Write<?>> group) {
+        List<Write<?>> pending = new ArrayList<>(group.size());
+        for (Write<?> write : group) {
+            if (write.deadline() != null && write.deadline().isExpired()) {
+                write.result().completeExceptionally(new QueryTimeoutException("Request deadline exceeded before the write"));
+            } else {
+                pending.add(write);
+            }
+        }
+        while (!pending.isEmpty()) {
+            List<Object> results = new ArrayList<>(pending.size());
+            RuntimeException[] failure = new RuntimeException[1];
+            try {
+                shards.on(shard, () -> transactionTemplate.execute(tx -> {
+                    for (Write<?> write : pending) {
+                        try {
+                            results.add(write.work().get());
+                        } catch (RuntimeException e) {
+                            failure[0] = e;
+                            tx.setRollbackOnly();
+                            return null;
+                        }
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException | Error e) {
+                log.warn("Group commit of {} writes failed on shard '{}'", pending.size(), shard, e);
+                pending.forEach(w -> w.result().completeExceptionally(e));
+                return;
+            }
+            if (failure[0] == null) {
+                for (int i = 0; i < pending.size(); i++) {
+                    complete(pending.get(i), results.get(i));
+                }
+                return;
+            }
+            // the failed write is the one after the last result; the others run again without it
+            pending.remove(results.size()).result().completeExceptionally(failure[0]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(Write<T> write, Object result) {
+        write.result().complete((T) result);
+    }
+
+    private static <T> T await(Write<T> write) {
+        try {
+            return write.deadline() == null
+                    ? write.result().get()
+                    : write.result().get(Math.max(0, write.deadline().remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Request deadline exceeded while waiting for the group commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
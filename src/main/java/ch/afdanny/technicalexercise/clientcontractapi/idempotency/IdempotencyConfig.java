@@ -0,0 +1,39 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Registers {@link IdempotencyFilter} on the create endpoints ({@code app.idempotency.enabled}, on by default).
+ * With sharding, the keys live on the default (first) shard.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    IdempotencyStore idempotencyStore(DataSource dataSource, IdempotencyProperties properties) {
+        return new IdempotencyStore(dataSource, properties);
+    }
+
+    @Bean
+    FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, IdempotencyProperties properties,
+                                                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        var registration = new FilterRegistrationBean<>(new IdempotencyFilter(store, properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/v1/contracts", "/v1/clients/person", "/v1/clients/company");
+        // after rate limiting and the deadline; inside compression, so stored bodies are uncompressed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,299 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+import ch.afdanny.technicalexercise.clientcontractapi.caller.CallerIdentity;
+import ch.afdanny.technicalexercise.clientcontractapi.concurrency.SingleFlight;
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * {@code Idempotency-Key} support for the create endpoints: the first request sent with a key runs, its response
+ * is stored, and every later request with the same key gets that response back ({@code Idempotent-Replayed: true})
+ * without running again. Keys are scoped by the caller's verified {@link CallerIdentity}, as rate limiting
+ * keys its buckets: a key sent by a caller with no identity is refused (400), since anyone else could replay it.
+ *
+ * Duplicates arriving while the first request runs wait for it: on the same node they share its execution
+ * ({@link SingleFlight}); on another node they poll the table for up to {@code wait-timeout} (and within
+ * the request deadline), then get 409. Reusing a key for a different request gets 422.
+ * Server errors (5xx) are not stored: a retry with the same key runs again.
+ *
+ * Completed responses are kept in a size-bounded in-memory cache in front of the {@code idempotency_key} table.
+ *
+ * Metrics: idempotency.requests{outcome=executed|replayed|conflict|mismatch}
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** Polling period while another node runs the first request. */
+    private static final long POLL_MILLIS = 50;
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, StoredResponse> completed;
+    private final SingleFlight<String> flights;
+
+    IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.flights = new SingleFlight<>("idempotency", meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !StringUtils.hasText(request.getHeader(properties.header()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(properties.header());
+        if (idempotencyKey.length() > 255) {
+            error(response, HttpStatus.BAD_REQUEST, properties.header() + " must be at most 255 characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes((int) properties.maxBodySize().toBytes() + 1);
+        if (body.length > properties.maxBodySize().toBytes()) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large for " + properties.header());
+            return;
+        }
+        String scope = CallerIdentity.of(request, properties.apiKeyHeader(), properties.trustApiKeyHeader());
+        if (scope == null) {
+            error(response, HttpStatus.BAD_REQUEST, properties.header() + " requires an authenticated caller");
+            return;
+        }
+        byte[] key = sha256(utf8(scope), utf8(idempotencyKey));
+        byte[] fingerprint = sha256(utf8(request.getMethod()), utf8(request.getServletPath()), body);
+        String cacheKey = HexFormat.of().formatHex(key);
+
+        var ran = new boolean[1];
+        StoredResponse stored = completed.getIfPresent(cacheKey);
+        if (stored == null) {
+            try {
+                stored = flights.execute(cacheKey, () -> {
+                    ran[0] = true;
+                    return firstOrStored(key, fingerprint, cacheKey, new CachedBodyRequest(request, body), response, chain);
+                });
+            } catch (ServletException | IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new ServletException(t);
+            }
+        }
+
+        if (!stored.completed()) {
+            count("conflict");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            error(response, HttpStatus.CONFLICT, "A request with this " + properties.header() + " is still being processed");
+        } else if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+            count("mismatch");
+            error(response, HttpStatus.UNPROCESSABLE_ENTITY, properties.header() + " was already used for a different request");
+        } else {
+            count(ran[0] ? "executed" : "replayed");
+            if (!ran[0]) {
+                response.setHeader(REPLAYED_HEADER, "true");
+            }
+            write(response, stored);
+        }
+    }
+
+    /**
+     * Runs the request if it can claim the key, else waits for the request holding it.
+     * Returns the response to send: the one produced here, the stored one, or one still running (status 0).
+     */
+    private StoredResponse firstOrStored(byte[] key, byte[] fingerprint, String cacheKey, HttpServletRequest request,
+                                         HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        long waitUntil = System.nanoTime() + properties.waitTimeout().toNanos();
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            waitUntil = Math.min(waitUntil, System.nanoTime() + deadline.remainingMillis() * 1_000_000);
+        }
+        while (true) {
+            if (store.claim(key, fingerprint)) {
+                return run(key, fingerprint, cacheKey, request, response, chain);
+            }
+            var existing = store.find(key);
+            if (existing.isPresent() && existing.get().completed()) {
+                completed.put(cacheKey, existing.get());
+                return existing.get();
+            }
+            if (existing.isPresent() && !Arrays.equals(existing.get().fingerprint(), fingerprint)) {
+                return new StoredResponse(existing.get().fingerprint(), HttpStatus.UNPROCESSABLE_ENTITY.value(), null, null, null);
+            }
+            if (System.nanoTime() + POLL_MILLIS * 1_000_000 > waitUntil) {
+                return new StoredResponse(fingerprint, 0, null, null, null);
+            }
+            sleep();
+        }
+    }
+
+    private StoredResponse run(byte[] key, byte[] fingerprint, String cacheKey, HttpServletRequest request,
+                               HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        var buffered = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        var result = new StoredResponse(fingerprint, buffered.getStatus(), buffered.getContentType(),
+                buffered.getHeader(HttpHeaders.LOCATION), buffered.getContentAsByteArray());
+        if (result.status() >= 500) {
+            store.release(key);
+        } else {
+            store.complete(key, result);
+            completed.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    private static void write(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(), message));
+    }
+
+    private void count(String outcome) {
+        Counter.builder("idempotency.requests").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** SHA-256 of the parts, each length-prefixed so that no two different sequences collide by concatenation. */
+    private static byte[] sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(new byte[]{(byte) (part.length >>> 24), (byte) (part.length >>> 16), (byte) (part.length >>> 8), (byte) part.length});
+                digest.update(part);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() throws IOException {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a duplicate request");
+        }
+    }
+
+    /** The request with its body already read, for the rest of the chain. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /** The whole body is in memory: available at once, then all read. */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : java.nio.charset.Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key settings ({@code app.idempotency.*}).
+ *
+ * @param apiKeyHeader       with {@code trustApiKeyHeader}, identifies the caller when no principal is authenticated
+ * @param trustApiKeyHeader  whether a gateway in front verifies {@code apiKeyHeader}. Keys are scoped by caller, so
+ *                           callers never share one; a key sent by a caller with no identity is refused (400)
+ * @param ttl          how long a response is replayed; a key reused afterwards runs again
+ * @param lockTimeout  an unfinished first request (crashed node) stops holding its key after this time
+ * @param waitTimeout  longest wait for a duplicate still running elsewhere (and within the request deadline), then 409
+ * @param maxBodySize  larger request bodies are refused (413) when sent with a key
+ * @param cacheSize    completed responses kept in memory in front of the table
+ * @param purgeInterval period of the deletion of expired keys
+ */
+@ConfigurationProperties("app.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("Idempotency-Key") String header,
+        @DefaultValue("X-API-Key") String apiKeyHeader,
+        @DefaultValue("false") boolean trustApiKeyHeader,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("60s") Duration lockTimeout,
+        @DefaultValue("10s") Duration waitTimeout,
+        @DefaultValue("64KB") DataSize maxBodySize,
+        @DefaultValue("10000") int cacheSize,
+        @DefaultValue("10m") Duration purgeInterval
+) {
+}
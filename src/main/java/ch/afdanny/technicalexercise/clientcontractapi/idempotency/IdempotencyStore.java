@@ -0,0 +1,82 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+/**
+ * {@code idempotency_key} table: one row per key, claimed by the first request, then holding its response
+ * until it expires. Every statement is a single-row autocommit write or read by primary key.
+ * Times come from the database clock, shared by every node.
+ */
+@Slf4j
+class IdempotencyStore {
+
+    private static final int PURGE_BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+
+    IdempotencyStore(DataSource dataSource, IdempotencyProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+    }
+
+    /**
+     * Claims {@code key} for the calling request: true if the key was free, expired,
+     * or held by an unfinished request past its lock timeout.
+     */
+    boolean claim(byte[] key, byte[] fingerprint) {
+        return !jdbcTemplate.queryForList("""
+                INSERT INTO idempotency_key (key, fingerprint, locked_until, expires_at)
+                VALUES (?, ?, now() + make_interval(secs => ?), now() + make_interval(secs => ?))
+                ON CONFLICT (key) DO UPDATE
+                   SET fingerprint = EXCLUDED.fingerprint, status = NULL, content_type = NULL, location = NULL, body = NULL,
+                       locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at
+                 WHERE idempotency_key.expires_at < now()
+                    OR (idempotency_key.status IS NULL AND idempotency_key.locked_until < now())
+                RETURNING 1
+                """, Integer.class, key, fingerprint,
+                properties.lockTimeout().toSeconds(), properties.ttl().toSeconds()).isEmpty();
+    }
+
+    /** The live row of {@code key}: its response once completed, else a response with status 0. */
+    Optional<StoredResponse> find(byte[] key) {
+        return jdbcTemplate.query("""
+                        SELECT fingerprint, status, content_type, location, body
+                          FROM idempotency_key
+                         WHERE key = ? AND expires_at >= now()
+                        """,
+                (rs, n) -> new StoredResponse(rs.getBytes(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getBytes(5)),
+                key).stream().findFirst();
+    }
+
+    void complete(byte[] key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_key SET status = ?, content_type = ?, location = ?, body = ? WHERE key = ?",
+                response.status(), response.contentType(), response.location(), response.body(), key);
+    }
+
+    /** Frees a key whose request failed, so that a retry runs again. */
+    void release(byte[] key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:10m}", initialDelayString = "${app.idempotency.purge-interval:10m}")
+    void purgeExpired() {
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("""
+                    DELETE FROM idempotency_key
+                     WHERE key IN (SELECT key FROM idempotency_key WHERE expires_at < now() LIMIT ?)
+                    """, PURGE_BATCH);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH);
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+/**
+ * Response of the first request sent with an idempotency key, replayed to its duplicates.
+ *
+ * @param fingerprint SHA-256 of the request (method, path, body) that produced it
+ * @param status      0 while that request is still running
+ * @param location    its {@code Location} header, if any
+ */
+record StoredResponse(byte[] fingerprint, int status, String contentType, String location, byte[] body) {
+
+    boolean completed() {
+        return status != 0;
+    }
+}
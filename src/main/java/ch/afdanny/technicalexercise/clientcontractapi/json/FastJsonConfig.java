@@ -0,0 +1,27 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Opt-in ({@code app.json.fast-writers.enabled=true}): registers {@link FastJsonHttpMessageConverter}
+ * ahead of the Jackson converter, so the response DTOs skip databind.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.json.fast-writers.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class FastJsonConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.addFirst(new FastJsonHttpMessageConverter(objectMapper.getFactory()));
+    }
+}
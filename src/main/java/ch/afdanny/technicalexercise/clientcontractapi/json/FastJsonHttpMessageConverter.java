@@ -0,0 +1,90 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ActiveContractsSumResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Write-only JSON converter for the response DTOs, backed by {@link ResponseJsonWriters}.
+ * Handles {@link ContractResponse}, {@code List<ContractResponse>}, {@link ActiveContractsSumResponse}
+ * and {@link ClientResponse} subtypes; everything else (errors, requests) stays with Jackson databind.
+ * Uses the application's {@link JsonFactory}, so generator features (escaping, BigDecimal as plain) match.
+ */
+public class FastJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final JsonFactory jsonFactory;
+
+    public FastJsonHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ContractResponse.class
+                || clazz == ActiveContractsSumResponse.class
+                || ClientResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) return false;
+        return supports(clazz) || isContractList(type);
+    }
+
+    private static boolean isContractList(@Nullable Type type) {
+        if (type == null) return false;
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && resolved.getGeneric(0).toClass() == ContractResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator g = jsonFactory.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            switch (value) {
+                case ContractResponse c -> ResponseJsonWriters.writeContract(g, c);
+                case ActiveContractsSumResponse s -> ResponseJsonWriters.writeActiveContractsSum(g, s);
+                case ClientResponse c -> ResponseJsonWriters.writeClient(g, c);
+                case List<?> list -> ResponseJsonWriters.writeContracts(g, (List<ContractResponse>) list);
+                default -> throw new IllegalArgumentException("Unsupported type: " + value.getClass());
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link ErrorResponse} bodies as {@code application/x-ndjson} (a single JSON line), so errors of the
+ * NDJSON endpoints (404, 503, 504, ...) reach clients accepting only NDJSON instead of ending as a 500.
+ */
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+public class NdjsonErrorConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        var converter = new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+                return false;
+            }
+
+            @Override
+            public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+                return ErrorResponse.class.isAssignableFrom(clazz) && canWrite(mediaType);
+            }
+        };
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_NDJSON));
+        converters.add(converter);
+    }
+}
@@ -0,0 +1,167 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ActiveContractsSumResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.CompanyClientResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.PersonClientResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written, reflection-free JSON writers for the response DTOs.
+ *
+ * They emit exactly what the Spring Boot configured ObjectMapper emits (same property order,
+ * nulls included, ISO dates, BigDecimal via the generator) - see ResponseJsonWritersTest.
+ * Any change to a DTO or to the Jackson configuration must be mirrored here.
+ * Property names are pre-encoded once ({@link SerializedString}).
+ */
+public final class ResponseJsonWriters {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PHONE = new SerializedString("phone");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString BIRTHDATE = new SerializedString("birthdate");
+    private static final SerializableString COMPANY_IDENTIFIER = new SerializedString("companyIdentifier");
+    private static final SerializableString CLIENT_ID = new SerializedString("clientId");
+    private static final SerializableString START_DATE = new SerializedString("startDate");
+    private static final SerializableString END_DATE = new SerializedString("endDate");
+    private static final SerializableString COST_AMOUNT = new SerializedString("costAmount");
+    private static final SerializableString TOTAL_COST_AMOUNT = new SerializedString("totalCostAmount");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ResponseJsonWriters() {}
+
+    public static void writeContract(JsonGenerator g, ContractResponse c) throws IOException {
+        g.writeStartObject();
+        g.writeFieldName(ID);
+        writeUuid(g, c.id());
+        g.writeFieldName(CLIENT_ID);
+        writeUuid(g, c.clientId());
+        g.writeFieldName(START_DATE);
+        writeDate(g, c.startDate());
+        g.writeFieldName(END_DATE);
+        writeDate(g, c.endDate());
+        g.writeFieldName(COST_AMOUNT);
+        writeDecimal(g, c.costAmount());
+        g.writeEndObject();
+    }
+
+    public static void writeContracts(JsonGenerator g, List<ContractResponse> contracts) throws IOException {
+        g.writeStartArray();
+        for (ContractResponse c : contracts) {
+            if (c == null) g.writeNull();
+            else writeContract(g, c);
+        }
+        g.writeEndArray();
+    }
+
+    public static void writeActiveContractsSum(JsonGenerator g, ActiveContractsSumResponse s) throws IOException {
+        g.writeStartObject();
+        g.writeFieldName(CLIENT_ID);
+        writeUuid(g, s.clientId());
+        g.writeFieldName(TOTAL_COST_AMOUNT);
+        writeDecimal(g, s.totalCostAmount());
+        g.writeEndObject();
+    }
+
+    /**
+     * The type id is an existing property ({@code type}), so it is written in field order like Jackson does.
+     */
+    public static void writeClient(JsonGenerator g, ClientResponse c) throws IOException {
+        g.writeStartObject();
+        g.writeFieldName(ID);
+        writeUuid(g, c.id);
+        g.writeFieldName(NAME);
+        g.writeString(c.name);
+        g.writeFieldName(EMAIL);
+        g.writeString(c.email);
+        g.writeFieldName(PHONE);
+        g.writeString(c.phone);
+        g.writeFieldName(TYPE);
+        g.writeString(c.type);
+        if (c instanceof PersonClientResponse p) {
+            g.writeFieldName(BIRTHDATE);
+            writeDate(g, p.birthdate);
+        } else if (c instanceof CompanyClientResponse co) {
+            g.writeFieldName(COMPANY_IDENTIFIER);
+            g.writeString(co.companyIdentifier);
+        }
+        g.writeEndObject();
+    }
+
+    /**
+     * Canonical 8-4-4-4-12 lower-case form, formatted straight into a char buffer (no String).
+     */
+    private static void writeUuid(JsonGenerator g, UUID value) throws IOException {
+        if (value == null) {
+            g.writeNull();
+            return;
+        }
+        char[] ch = new char[36];
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        hex(ch, 0, msb >>> 32, 8);
+        ch[8] = '-';
+        hex(ch, 9, msb >>> 16, 4);
+        ch[13] = '-';
+        hex(ch, 14, msb, 4);
+        ch[18] = '-';
+        hex(ch, 19, lsb >>> 48, 4);
+        ch[23] = '-';
+        hex(ch, 24, lsb, 12);
+        g.writeString(ch, 0, 36);
+    }
+
+    private static void hex(char[] ch, int offset, long bits, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            ch[i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+    }
+
+    /**
+     * ISO-8601 (yyyy-MM-dd), as written by JavaTimeModule's LocalDateSerializer; years outside
+     * 0..9999 need a sign / more digits and go through {@link LocalDate#toString()}.
+     */
+    private static void writeDate(JsonGenerator g, LocalDate value) throws IOException {
+        if (value == null) {
+            g.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            g.writeString(value.toString());
+            return;
+        }
+        char[] ch = new char[10];
+        digits(ch, 0, year, 4);
+        ch[4] = '-';
+        digits(ch, 5, value.getMonthValue(), 2);
+        ch[7] = '-';
+        digits(ch, 8, value.getDayOfMonth(), 2);
+        g.writeString(ch, 0, 10);
+    }
+
+    private static void digits(char[] ch, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            ch[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator g, BigDecimal value) throws IOException {
+        if (value == null) g.writeNull();
+        else g.writeNumber(value);
+    }
+}
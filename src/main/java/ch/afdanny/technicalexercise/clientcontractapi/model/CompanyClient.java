@@ -1,9 +1,9 @@
 package ch.afdanny.technicalexercise.clientcontractapi.model;
 
 import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import ch.afdanny.technicalexercise.clientcontractapi.validation.CompanyIdentifier;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -11,11 +11,11 @@ import lombok.experimental.SuperBuilder;
 @Table(name = "company_client")
 @Getter @Setter
 @NoArgsConstructor
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class CompanyClient extends Client {
 
     @NotBlank
-    @Pattern(regexp = "^[a-zA-Z]{3}-\\d{3}$", message = "Invalid company identifier format (e.g. AAA-123)")
+    @CompanyIdentifier
     @Column(name = "company_identifier", nullable = false, unique = true)
     private String companyIdentifier;
 
@@ -11,11 +11,15 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "contract")
+// Liquibase (changelog-005) adds what JPA cannot declare: WHERE end_date IS NOT NULL and INCLUDE (cost_amount)
+@Table(name = "contract", indexes = {
+        @Index(name = "idx_contract_end_date_not_null", columnList = "end_date, id"),
+        @Index(name = "idx_contract_client_end_date", columnList = "client_id, end_date")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Contract {
 
     @Id
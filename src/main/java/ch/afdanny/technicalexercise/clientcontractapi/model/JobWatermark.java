@@ -0,0 +1,24 @@
+package ch.afdanny.technicalexercise.clientcontractapi.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Last day processed by a scheduled job (one row per job name).
+ */
+@Entity
+@Table(name = "job_watermark")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDate processedThrough;
+}
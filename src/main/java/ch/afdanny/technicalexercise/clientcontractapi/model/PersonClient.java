@@ -13,7 +13,7 @@ import java.time.LocalDate;
 @Table(name = "person_client")
 @Getter @Setter
 @NoArgsConstructor
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class PersonClient extends Client {
 
     @Past(message = "Birthdate must be in the past")
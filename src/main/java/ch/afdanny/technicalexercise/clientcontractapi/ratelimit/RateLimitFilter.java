@@ -0,0 +1,147 @@
+package ch.afdanny.technicalexercise.clientcontractapi.ratelimit;
+
+import ch.afdanny.technicalexercise.clientcontractapi.caller.CallerIdentity;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiting in front of the client and contract endpoints: one bucket per caller
+ * (authenticated principal, else API key when a gateway verifies it, else address) and one per client id
+ * found in the path, so neither a single
+ * integration nor a single hot client can monopolize the connection pool.
+ * Rejected requests get 429 with {@code Retry-After} and never reach the controllers.
+ *
+ * Buckets live in size-bounded Caffeine caches and are evicted once idle.
+ *
+ * Metrics:
+ *  - ratelimit.rejected{limit=api-key|client, caller=principal|api-key|address}: throttled requests per kind of
+ *    caller; never the principal, key or address itself, which would export credentials and unbounded series
+ *  - ratelimit.buckets{limit}: buckets currently in memory
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CLIENTS_PREFIX = "/v1/clients/";
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> callerBuckets;
+    private final Cache<String, TokenBucket> clientBuckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    LongSupplier nanoClock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.callerBuckets = buckets("api-key");
+        this.clientBuckets = buckets("client");
+    }
+
+    private Cache<String, TokenBucket> buckets(String limit) {
+        Cache<String, TokenBucket> cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleExpiry())
+                .build();
+        Gauge.builder("ratelimit.buckets", cache, Cache::estimatedSize)
+                .tag("limit", limit)
+                .register(meterRegistry);
+        return cache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = nanoClock.getAsLong();
+        String caller = caller(request);
+
+        long wait = acquire(callerBuckets, caller, properties.perApiKey(), now);
+        if (wait > 0) {
+            reject(response, "api-key", caller, wait);
+            return;
+        }
+        String clientId = clientId(request.getServletPath());
+        if (clientId != null) {
+            wait = acquire(clientBuckets, clientId, properties.perClient(), now);
+            if (wait > 0) {
+                reject(response, "client", caller, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private long acquire(Cache<String, TokenBucket> buckets, String key, RateLimitProperties.Limit limit, long now) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.capacity(), limit.tokensPerSecond(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * The verified {@link CallerIdentity}, else the address: an unverified API key would let a caller rotate it to
+     * get fresh buckets, or exhaust another integration's bucket. The address is the client's, not the load
+     * balancer's: {@code server.forward-headers-strategy} takes it from the headers set by the trusted proxies.
+     */
+    private String caller(HttpServletRequest request) {
+        String identity = CallerIdentity.of(request, properties.apiKeyHeader(), properties.trustApiKeyHeader());
+        return identity != null ? identity : "addr:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Client id of {@code /v1/clients/{id}} and {@code /v1/clients/{id}/...}, null for other paths. Normalized as
+     * the controllers parse it, so another spelling of the same id (upper case, ...) shares its bucket.
+     */
+    static String clientId(String path) {
+        if (!path.startsWith(CLIENTS_PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', CLIENTS_PREFIX.length());
+        String id = path.substring(CLIENTS_PREFIX.length(), end < 0 ? path.length() : end);
+        try {
+            return UUID.fromString(id).toString();
+        } catch (IllegalArgumentException e) {
+            return null; // "person" / "company" are the creation endpoints; anything else never reaches a client
+        }
+    }
+
+    private void reject(HttpServletResponse response, String limit, String caller, long waitNanos)
+            throws IOException {
+        Counter.builder("ratelimit.rejected")
+                .tag("limit", limit)
+                .tag("caller", caller.startsWith("user:") ? "principal" : caller.startsWith("key:") ? "api-key" : "address")
+                .register(meterRegistry)
+                .increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        var status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(Instant.now(), status.value(),
+                status.getReasonPhrase(),
+                "Rate limit exceeded (" + limit + "), retry in " + retryAfterSeconds + "s"));
+    }
+}
@@ -0,0 +1,39 @@
+package ch.afdanny.technicalexercise.clientcontractapi.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Rate limiting settings ({@code app.rate-limit.*}).
+ *
+ * @param apiKeyHeader       request header identifying the calling integration
+ * @param trustApiKeyHeader  key callers by {@code apiKeyHeader}; only when a gateway in front verifies it, since
+ *                           anyone can send any value. Otherwise callers are keyed by authenticated principal, or address
+ * @param perApiKey          bucket of each caller, all endpoints together
+ * @param perClient          bucket of each client id in {@code /v1/clients/{id}/**}, all callers together
+ * @param maxBuckets         upper bound of buckets kept in memory (per kind)
+ * @param idleExpiry         a bucket unused for this long is dropped; it would be full again by then anyway
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("X-API-Key") String apiKeyHeader,
+        @DefaultValue("false") boolean trustApiKeyHeader,
+        @DefaultValue Limit perApiKey,
+        @DefaultValue Limit perClient,
+        @DefaultValue("100000") long maxBuckets,
+        @DefaultValue("10m") Duration idleExpiry
+) {
+
+    /**
+     * @param capacity        burst size
+     * @param tokensPerSecond sustained rate
+     */
+    public record Limit(
+            @DefaultValue("200") long capacity,
+            @DefaultValue("100") double tokensPerSecond
+    ) {
+    }
+}
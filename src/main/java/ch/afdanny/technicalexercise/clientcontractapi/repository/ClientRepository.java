@@ -1,6 +1,8 @@
 package ch.afdanny.technicalexercise.clientcontractapi.repository;
 
 import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -8,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 @Repository
@@ -28,13 +31,20 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
 
     /**
      * Returns one active client by id (ignores soft-deleted ones).
+     * Results are kept in the "client-active-by-id" query cache region; Hibernate invalidates them
+     * whenever the client table is written (entity updates as well as bulk JPQL updates).
      */
     @Query("SELECT c FROM Client c WHERE c.id = :id AND c.deletedAt IS NULL")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "client-active-by-id")
+    })
     Optional<Client> findActiveById(@Param("id") UUID id);
 
     /**
      * Soft-deletes a client by updating the deletedAt field.
      * Can be used for batch operations instead of loading the entity.
+     * Being a bulk update, it evicts the "client" cache region and the dependent query cache entries.
      */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -44,4 +54,90 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
            AND c.deletedAt IS NULL
         """)
     int markAsDeleted(@Param("id") UUID id, @Param("now") Instant now);
-}
\ No newline at end of file
+
+    /**
+     * Fuzzy search of live clients on lower-case name, email and company identifier with pg_trgm word similarity
+     * ({@code :q <% text}): matches words close to the query, and word prefixes of 3+ characters.
+     * A client scores the best similarity of its three fields. Best score first, then id; keyset pagination:
+     * returns the hits strictly after (:afterScore, :afterId).
+     * Each field is served by its trigram GIN index (changelog-002) and contributes at most :maxCandidates rows
+     * after the keyset (plus one, to tell), which bounds the work of broad queries (a common first name). A field
+     * with more candidates may have left better hits out: every row then reports {@code truncated}.
+     */
+    @Query(value = """
+           SELECT h.id AS id, MAX(h.score) AS score, bool_or(bool_or(h.capped)) OVER () AS truncated
+             FROM (SELECT b.id, b.score, count(*) OVER (PARTITION BY b.field) > :maxCandidates AS capped
+                     FROM ((SELECT 1 AS field, c.id, s.score
+                              FROM client c
+                             CROSS JOIN LATERAL (SELECT GREATEST(word_similarity(:q, lower(c.name)),
+                                                                 word_similarity(:q, lower(c.email)),
+                                                                 COALESCE((SELECT word_similarity(:q, lower(cc.company_identifier))
+                                                                             FROM company_client cc
+                                                                            WHERE cc.id = c.id), 0)) AS score) s
+                             WHERE c.deleted_at IS NULL AND :q <% lower(c.name)
+                               AND (s.score < :afterScore OR (s.score = :afterScore AND c.id > :afterId))
+                             LIMIT :maxCandidates + 1)
+                           UNION ALL
+                           (SELECT 2, c.id, s.score
+                              FROM client c
+                             CROSS JOIN LATERAL (SELECT GREATEST(word_similarity(:q, lower(c.name)),
+                                                                 word_similarity(:q, lower(c.email)),
+                                                                 COALESCE((SELECT word_similarity(:q, lower(cc.company_identifier))
+                                                                             FROM company_client cc
+                                                                            WHERE cc.id = c.id), 0)) AS score) s
+                             WHERE c.deleted_at IS NULL AND :q <% lower(c.email)
+                               AND (s.score < :afterScore OR (s.score = :afterScore AND c.id > :afterId))
+                             LIMIT :maxCandidates + 1)
+                           UNION ALL
+                           (SELECT 3, c.id, s.score
+                              FROM company_client cc
+                              JOIN client c ON c.id = cc.id AND c.deleted_at IS NULL
+                             CROSS JOIN LATERAL (SELECT GREATEST(word_similarity(:q, lower(c.name)),
+                                                                 word_similarity(:q, lower(c.email)),
+                                                                 word_similarity(:q, lower(cc.company_identifier))) AS score) s
+                             WHERE :q <% lower(cc.company_identifier)
+                               AND (s.score < :afterScore OR (s.score = :afterScore AND c.id > :afterId))
+                             LIMIT :maxCandidates + 1)) b) h
+            GROUP BY h.id
+            ORDER BY score DESC, id
+            LIMIT :limit
+           """, nativeQuery = true)
+    List<ClientSearchHit> search(@Param("q") String q,
+                                 @Param("maxCandidates") int maxCandidates,
+                                 @Param("afterScore") float afterScore,
+                                 @Param("afterId") UUID afterId,
+                                 @Param("limit") int limit);
+
+    /**
+     * Overview of one active client, rendered by PostgreSQL as the JSON of {@code ClientOverviewResponse}
+     * (same field names and values as ClientMapper / ContractMapper):
+     * the typed client, its active contracts (endDate null or after :today) and their cost sum, in one statement.
+     * Empty when the client does not exist or is soft-deleted.
+     */
+    @Query(value = """
+           SELECT CAST(json_build_object(
+                      'client', CASE WHEN pc.id IS NOT NULL
+                                     THEN json_build_object('id', c.id, 'name', c.name, 'email', c.email,
+                                                            'phone', c.phone, 'type', 'person', 'birthdate', pc.birthdate)
+                                     ELSE json_build_object('id', c.id, 'name', c.name, 'email', c.email,
+                                                            'phone', c.phone, 'type', 'company',
+                                                            'companyIdentifier', cc.company_identifier)
+                                END,
+                      'activeContracts', COALESCE(a.contracts, CAST('[]' AS json)),
+                      'totalCostAmount', COALESCE(a.total, 0)) AS text)
+             FROM client c
+             LEFT JOIN person_client pc ON pc.id = c.id
+             LEFT JOIN company_client cc ON cc.id = c.id
+            CROSS JOIN LATERAL (
+                  SELECT json_agg(json_build_object('id', ct.id, 'clientId', ct.client_id, 'startDate', ct.start_date,
+                                                    'endDate', ct.end_date, 'costAmount', ct.cost_amount)
+                                  ORDER BY ct.start_date, ct.id) AS contracts,
+                         SUM(ct.cost_amount) AS total
+                    FROM contract ct
+                   WHERE ct.client_id = c.id
+                     AND (ct.end_date IS NULL OR ct.end_date > :today)) a
+            WHERE c.id = :id
+              AND c.deleted_at IS NULL
+           """, nativeQuery = true)
+    Optional<String> findActiveOverviewJson(@Param("id") UUID id, @Param("today") LocalDate today);
+}
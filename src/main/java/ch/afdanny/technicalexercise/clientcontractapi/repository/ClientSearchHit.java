@@ -0,0 +1,14 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import java.util.UUID;
+
+/**
+ * One client matched by {@link ClientRepository#search}, scored with the best trigram word similarity (0..1]
+ * of the query with its name, email or company identifier.
+ * {@code truncated} is the same on every hit of a search: a field had more candidates than were ranked.
+ */
+public interface ClientSearchHit {
+    UUID getId();
+    float getScore();
+    boolean isTruncated();
+}
@@ -0,0 +1,106 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Client writes as one SQL statement each across the JOINED tables (client + person_client / company_client):
+ * one round trip, no persistence context. Hibernate does not see them: callers evict the second-level cache.
+ */
+@Repository
+public class ClientWriteRepository {
+
+    private static final String INSERT_PERSON = """
+            WITH c AS (
+                INSERT INTO client (id, name, email, phone, type)
+                VALUES (?, ?, ?, ?, 'PERSON')
+                RETURNING id
+            )
+            INSERT INTO person_client (id, birthdate)
+            SELECT id, ? FROM c
+            """;
+
+    private static final String INSERT_COMPANY = """
+            WITH c AS (
+                INSERT INTO client (id, name, email, phone, type)
+                VALUES (?, ?, ?, ?, 'COMPANY')
+                RETURNING id
+            )
+            INSERT INTO company_client (id, company_identifier)
+            SELECT id, ? FROM c
+            """;
+
+    private static final String UPDATE_CONTACT_INFO = """
+            WITH u AS (
+                UPDATE client
+                   SET name = ?, email = ?, phone = ?
+                 WHERE id = ? AND deleted_at IS NULL
+                RETURNING id, name, email, phone, type
+            )
+            SELECT u.id, u.name, u.email, u.phone, u.type, p.birthdate, co.company_identifier
+              FROM u
+              LEFT JOIN person_client p ON p.id = u.id
+              LEFT JOIN company_client co ON co.id = u.id
+            """;
+
+    private static final String TAKEN = """
+            SELECT EXISTS (SELECT 1 FROM client WHERE email = ? AND id <> ?)
+                OR EXISTS (SELECT 1 FROM company_client WHERE company_identifier = ? AND id <> ?)
+            """;
+
+    private static final RowMapper<Client> CLIENT = (rs, n) -> {
+        var client = switch (ClientType.valueOf(rs.getString(5))) {
+            case PERSON -> PersonClient.builder().birthdate(rs.getObject(6, LocalDate.class));
+            case COMPANY -> CompanyClient.builder().companyIdentifier(rs.getString(7));
+        };
+        return client
+                .id(rs.getObject(1, UUID.class))
+                .name(rs.getString(2))
+                .email(rs.getString(3))
+                .phone(rs.getString(4))
+                .type(ClientType.valueOf(rs.getString(5)))
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClientWriteRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /** Inserts {@code person} (id assigned) into client and person_client. */
+    public void insertPerson(PersonClient person) {
+        jdbcTemplate.update(INSERT_PERSON,
+                person.getId(), person.getName(), person.getEmail(), person.getPhone(), person.getBirthdate());
+    }
+
+    /** Inserts {@code company} (id assigned) into client and company_client. */
+    public void insertCompany(CompanyClient company) {
+        jdbcTemplate.update(INSERT_COMPANY,
+                company.getId(), company.getName(), company.getEmail(), company.getPhone(), company.getCompanyIdentifier());
+    }
+
+    /** Sets name, email and phone of an active client; the updated client (detached), if active. */
+    public Optional<Client> updateContactInfo(UUID id, String name, String email, String phone) {
+        return jdbcTemplate.query(UPDATE_CONTACT_INFO, CLIENT, name, email, phone, id).stream().findFirst();
+    }
+
+    /**
+     * Whether a client other than {@code id}, soft-deleted ones included, has {@code email} or
+     * {@code companyIdentifier} (null: not checked): what the unique constraints would reject.
+     */
+    public boolean isTaken(UUID id, String email, @Nullable String companyIdentifier) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TAKEN, Boolean.class, email, id, companyIdentifier, id));
+    }
+}
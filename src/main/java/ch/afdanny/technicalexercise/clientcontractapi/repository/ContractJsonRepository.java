@@ -0,0 +1,83 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Active contracts rendered as JSON by PostgreSQL, one {@code ContractResponse} object per row
+ * (same field names and values as ContractMapper + Jackson), for pass-through streaming.
+ *
+ * Rows are fetched by batches of {@link #FETCH_SIZE} through a server-side cursor (inside a transaction),
+ * and each row reaches the sink as the bytes received from the server, without being decoded into a String.
+ */
+@Repository
+public class ContractJsonRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String ACTIVE_BY_CLIENT = """
+            SELECT row_to_json(r)
+              FROM (SELECT ct.id, ct.client_id AS "clientId", ct.start_date AS "startDate",
+                           ct.end_date AS "endDate", ct.cost_amount AS "costAmount"
+                      FROM contract ct
+                     WHERE ct.client_id = ?
+                       AND (ct.end_date IS NULL OR ct.end_date > ?)) r
+            """;
+
+    private static final String ACTIVE_BY_CLIENT_UPDATED_SINCE = """
+            SELECT row_to_json(r)
+              FROM (SELECT ct.id, ct.client_id AS "clientId", ct.start_date AS "startDate",
+                           ct.end_date AS "endDate", ct.cost_amount AS "costAmount"
+                      FROM contract ct
+                     WHERE ct.client_id = ?
+                       AND (ct.end_date IS NULL OR ct.end_date > ?)
+                       AND ct.last_update_date >= ?) r
+            """;
+
+    /** Receives the UTF-8 JSON of one row; the array must not be kept after the call. */
+    @FunctionalInterface
+    public interface JsonRowSink {
+        void accept(byte[] json) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContractJsonRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Streams the contracts active at {@code today} (endDate null or after it) of one client,
+     * optionally only those updated since {@code updatedSince}.
+     */
+    public void streamActiveByClient(UUID clientId, LocalDate today, @Nullable LocalDate updatedSince,
+                                     JsonRowSink sink) throws IOException {
+        RowCallbackHandler rows = rs -> write(sink, rs.getBytes(1));
+        try {
+            if (updatedSince == null) {
+                jdbcTemplate.query(ACTIVE_BY_CLIENT, rows, clientId, today);
+            } else {
+                jdbcTemplate.query(ACTIVE_BY_CLIENT_UPDATED_SINCE, rows, clientId, today, updatedSince);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(JsonRowSink sink, byte[] json) {
+        try {
+            sink.accept(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ch.afdanny.technicalexercise.clientcontractapi.repository;
 
+import ch.afdanny.technicalexercise.clientcontractapi.expiry.ContractExpiredEvent;
 import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -28,6 +30,17 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
            """)
     Page<Contract> findByClientId(@Param("clientId") UUID clientId, Pageable pageable);
 
+    /**
+     * A contract of a given client (regardless of its end date).
+     */
+    @Query("""
+           SELECT ct
+             FROM Contract ct
+            WHERE ct.id = :id
+              AND ct.client.id = :clientId
+           """)
+    Optional<Contract> findByIdAndClientId(@Param("id") UUID id, @Param("clientId") UUID clientId);
+
     /**
      * Returns all active contracts for a given client at a given date.
      * A contract is considered active when its endDate is null or greater than :today.
@@ -69,6 +82,10 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
                                                            @Param("today") LocalDate today,
                                                            @Param("updatedSince") LocalDate updatedSince);
 
+    /**
+     * Sum of the costs of a client's active contracts.
+     * Index-only scan on idx_contract_client_end_date (client_id, end_date) INCLUDE (cost_amount): no table read.
+     */
     @Query("""
             SELECT COALESCE(SUM(ct.costAmount), 0)
               FROM Contract ct
@@ -77,4 +94,60 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
             """)
     BigDecimal sumActiveCostByClient(@Param("clientId") UUID clientId,
                                      @Param("today") LocalDate today);
-}
\ No newline at end of file
+
+    /**
+     * Cost amounts of a client's active contracts (read before closing them, for the cost distribution).
+     * Index-only scan on idx_contract_client_end_date, like the sum.
+     */
+    @Query("""
+            SELECT ct.costAmount
+              FROM Contract ct
+             WHERE ct.client.id = :clientId
+               AND (ct.endDate IS NULL OR ct.endDate > :today)
+            """)
+    List<BigDecimal> findActiveCostsByClient(@Param("clientId") UUID clientId,
+                                             @Param("today") LocalDate today);
+
+    /**
+     * Active contracts ending within (today, until], soonest first.
+     * Range scan on idx_contract_end_date_not_null (end_date, id), which also provides the order: no sort, no table scan.
+     */
+    @Query("""
+            SELECT ct
+              FROM Contract ct
+             WHERE ct.endDate > :today
+               AND ct.endDate <= :until
+             ORDER BY ct.endDate, ct.id
+            """)
+    List<Contract> findExpiringBetween(@Param("today") LocalDate today,
+                                       @Param("until") LocalDate until,
+                                       Pageable pageable);
+
+    /**
+     * Contracts whose last active day is the day before :day, i.e. that are no longer active from :day on.
+     * Equality lookup on idx_contract_end_date_not_null, then the client type by primary key.
+     */
+    @Query("""
+            SELECT new ch.afdanny.technicalexercise.clientcontractapi.expiry.ContractExpiredEvent(
+                       ct.id, ct.client.id, ct.endDate, ct.costAmount, ct.client.type)
+              FROM Contract ct
+             WHERE ct.endDate = :day
+            """)
+    List<ContractExpiredEvent> findExpiredOn(@Param("day") LocalDate day);
+
+    /**
+     * Active contracts counted per client type and cost bucket {@code ceil(ln(cost) / :logGamma)} (see CostSketch),
+     * to rebuild the cost distribution: one pass over the table, which PostgreSQL splits among parallel workers
+     * on large tables, and one row per non-empty bucket instead of one per contract.
+     */
+    @Query(value = """
+           SELECT c.type AS type,
+                  CAST(ceil(ln(CAST(ct.cost_amount AS float8)) / :logGamma) AS int) AS bucket,
+                  count(*) AS count
+             FROM contract ct
+             JOIN client c ON c.id = ct.client_id
+            WHERE ct.end_date IS NULL OR ct.end_date > :today
+            GROUP BY c.type, bucket
+           """, nativeQuery = true)
+    List<CostBucketCount> countActiveByCostBucket(@Param("logGamma") double logGamma, @Param("today") LocalDate today);
+}
@@ -0,0 +1,88 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Contract writes as single SQL statements (one round trip each, no persistence context), for group commit.
+ * The contracts returned are detached, their client being an uninitialized reference.
+ */
+@Repository
+public class ContractWriteRepository {
+
+    private static final String INSERT_FOR_ACTIVE_CLIENT = """
+            WITH c AS (SELECT id, type FROM client WHERE id = ? AND deleted_at IS NULL),
+                 i AS (INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, last_update_date)
+                       SELECT ?, c.id, ?, ?, ?, ?
+                         FROM c
+                       RETURNING client_id)
+            SELECT c.type FROM c JOIN i ON i.client_id = c.id
+            """;
+
+    // the previous cost is read from the row locked first (FOR UPDATE): never from a version replaced concurrently
+    private static final String UPDATE_COST = """
+            UPDATE contract ct
+               SET cost_amount = COALESCE(?::numeric, ct.cost_amount), last_update_date = ?
+              FROM (SELECT o.id, o.cost_amount, c.type
+                      FROM contract o
+                      JOIN client c ON c.id = o.client_id
+                     WHERE o.id = ? AND o.client_id = ?
+                       FOR UPDATE OF o) previous
+             WHERE ct.id = previous.id
+            RETURNING ct.id, ct.client_id, ct.start_date, ct.end_date, ct.cost_amount, ct.last_update_date::date,
+                      previous.cost_amount, previous.type
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public ContractWriteRepository(DataSource dataSource, EntityManager entityManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Inserts {@code contract} (id assigned) unless its client is unknown or deleted.
+     *
+     * @return the type of the client, empty when nothing was inserted
+     */
+    public Optional<ClientType> insertForActiveClient(Contract contract) {
+        return jdbcTemplate.query(INSERT_FOR_ACTIVE_CLIENT, (rs, n) -> ClientType.valueOf(rs.getString(1)),
+                contract.getClient().getId(), contract.getId(), contract.getStartDate(), contract.getEndDate(),
+                contract.getCostAmount(), contract.getLastUpdateDate()).stream().findFirst();
+    }
+
+    /**
+     * Sets the cost amount (kept when null) and the last update date; the update made, if the contract exists and
+     * belongs to {@code clientId}.
+     */
+    public Optional<CostUpdate> updateCost(UUID clientId, UUID id, @Nullable BigDecimal costAmount, LocalDate today) {
+        return jdbcTemplate.query(UPDATE_COST, (rs, n) -> new CostUpdate(Contract.builder()
+                .id(rs.getObject(1, UUID.class))
+                .client(clientReference(rs.getObject(2, UUID.class)))
+                .startDate(rs.getObject(3, LocalDate.class))
+                .endDate(rs.getObject(4, LocalDate.class))
+                .costAmount(rs.getBigDecimal(5))
+                .lastUpdateDate(rs.getObject(6, LocalDate.class))
+                .build(), rs.getBigDecimal(7), ClientType.valueOf(rs.getString(8))), costAmount, today, id, clientId).stream().findFirst();
+    }
+
+    public Client clientReference(UUID clientId) {
+        return entityManager.getReference(Client.class, clientId);
+    }
+
+    /** A cost update: the updated contract, its cost before, and the type of its client. */
+    public record CostUpdate(Contract contract, BigDecimal previousCost, ClientType clientType) {
+    }
+}
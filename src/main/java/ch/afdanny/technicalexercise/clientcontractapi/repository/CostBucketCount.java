@@ -0,0 +1,10 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+/**
+ * Number of active contracts of one client type in one cost bucket, from {@link ContractRepository#countActiveByCostBucket}.
+ */
+public interface CostBucketCount {
+    String getType();
+    int getBucket();
+    long getCount();
+}
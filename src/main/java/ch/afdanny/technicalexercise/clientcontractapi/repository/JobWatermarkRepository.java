@@ -0,0 +1,37 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+
+    /**
+     * Creates the watermark of a job on its first run; a no-op when it already exists,
+     * including when another instance creates it concurrently.
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO job_watermark (name, processed_through)
+           VALUES (:name, :processedThrough)
+           ON CONFLICT (name) DO NOTHING
+           """, nativeQuery = true)
+    void insertIfAbsent(@Param("name") String name, @Param("processedThrough") LocalDate processedThrough);
+
+    /**
+     * Loads the watermark with SELECT ... FOR UPDATE: other instances running the same job wait
+     * until the current transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.name = :name")
+    Optional<JobWatermark> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,36 @@
+package ch.afdanny.technicalexercise.clientcontractapi.service;
+
+import ch.afdanny.technicalexercise.clientcontractapi.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the client search results (score of the last hit, then its id), sent to callers
+ * as an opaque url-safe token.
+ */
+record ClientSearchCursor(float score, UUID id) {
+
+    /** Position before the first hit: similarities never exceed 1. */
+    static final ClientSearchCursor FIRST = new ClientSearchCursor(2f, new UUID(0, 0));
+
+    String encode() {
+        String raw = Float.floatToIntBits(score) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static ClientSearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            return new ClientSearchCursor(Float.intBitsToFloat(Integer.parseInt(raw.substring(0, sep))),
+                    UUID.fromString(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ch.afdanny.technicalexercise.clientcontractapi.service;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+
+import java.util.List;
+
+/**
+ * One page of client search results, best match first.
+ *
+ * @param nextCursor position after the last client of this page, {@code null} on the last page
+ *                   and when {@code truncated}
+ * @param truncated  the query matched more clients than are ranked: refine it to see the others
+ */
+public record ClientSearchPage(List<Client> clients, String nextCursor, boolean truncated) {
+}
@@ -1,60 +1,107 @@
 package ch.afdanny.technicalexercise.clientcontractapi.service;
 
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostDistributions;
+import ch.afdanny.technicalexercise.clientcontractapi.cache.CacheInvalidationPublisher;
+import ch.afdanny.technicalexercise.clientcontractapi.cache.LocalCache;
+import ch.afdanny.technicalexercise.clientcontractapi.concurrency.Coalesced;
+import ch.afdanny.technicalexercise.clientcontractapi.concurrency.CoalescedReads;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardKey;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.BadRequestException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.ConflictException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
 import ch.afdanny.technicalexercise.clientcontractapi.model.*;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
 import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientSearchHit;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientWriteRepository;
 import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
-import ch.afdanny.technicalexercise.clientcontractapi.repository.CompanyClientRepository;
-import ch.afdanny.technicalexercise.clientcontractapi.repository.PersonClientRepository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed // method.timed{class, method}
 @RequiredArgsConstructor
 public class ClientService {
 
     private final ClientRepository clientRepository;
-    private final PersonClientRepository personClientRepository;
-    private final CompanyClientRepository companyClientRepository;
+    private final ClientWriteRepository clientWriteRepository;
     private final ContractRepository contractRepository;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationPublisher cacheInvalidations;
+    private final CostDistributions costDistributions;
+    private final CoalescedReads coalescedReads;
+
+    /** Rows each searched field may contribute: bounds the cost of broad queries at any table size. */
+    static final int SEARCH_MAX_CANDIDATES = 1000;
+
+    /** Order of {@link ClientRepository#search}: score, then id. */
+    private static final Comparator<ClientSearchHit> SEARCH_ORDER = Comparator
+            .comparingDouble((ClientSearchHit h) -> -h.getScore())
+            .thenComparing(ClientSearchHit::getId, Shards.UUID_ORDER);
 
     /**
-     * Create a Person client.
+     * Create a Person client, on the shard its new id maps to: both rows in one statement.
+     * The email is unique across shards.
      */
-    @Transactional
     public PersonClient createPerson(String name, String email, String phone, java.time.LocalDate birthdate) {
         PersonClient person = PersonClient.builder()
+                .id(UUID.randomUUID())
                 .name(name)
                 .email(email)
                 .phone(phone)
                 .birthdate(birthdate)
+                .type(ClientType.PERSON)
                 .build();
+        checkUniqueAcrossShards(person.getId(), email, null, "Email already exists or constraint violated");
         try {
-            return personClientRepository.saveAndFlush(person);
+            shards.on(shards.shardOf(person.getId()), () -> {
+                clientWriteRepository.insertPerson(person);
+                return null;
+            });
+            return person;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already exists or constraint violated", e);
         }
     }
 
     /**
-     * Create a Company client.
+     * Create a Company client, on the shard its new id maps to: both rows in one statement.
+     * Email and company identifier are unique across shards.
      */
-    @Transactional
     public CompanyClient createCompany(String name, String email, String phone, String companyIdentifier) {
         CompanyClient company = CompanyClient.builder()
+                .id(UUID.randomUUID())
                 .name(name)
                 .email(email)
                 .phone(phone)
                 .companyIdentifier(companyIdentifier)
+                .type(ClientType.COMPANY)
                 .build();
+        checkUniqueAcrossShards(company.getId(), email, companyIdentifier,
+                "Email or company identifier already exists / constraint violated");
         try {
-            return companyClientRepository.saveAndFlush(company);
+            shards.on(shards.shardOf(company.getId()), () -> {
+                clientWriteRepository.insertCompany(company);
+                return null;
+            });
+            return company;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email or company identifier already exists / constraint violated", e);
         }
@@ -62,27 +109,84 @@ public class ClientService {
 
     /**
      * Load an ACTIVE client (ignores soft-deleted ones).
+     * Concurrent reads of the same id share one lookup, each caller getting its own detached instance.
      */
+    @Coalesced("client.read-active")
     @Transactional
-    public Client readActive(UUID id) {
+    public Client readActive(@ShardKey UUID id) {
         return clientRepository.findActiveById(id)
                 .orElseThrow(() -> new NotFoundException("Client not found or deleted"));
     }
 
     /**
-     * Update limited fields of a client: name, email, phone.
+     * Overview of an ACTIVE client as JSON ({@code ClientOverviewResponse}): the client, its active contracts
+     * and their cost sum, read and rendered by one SQL statement.
      */
-    @Transactional
-    public Client updateContactInfo(UUID id, String name, String email, String phone) {
-        Client client = clientRepository.findActiveById(id)
+    @Transactional(readOnly = true)
+    public String readActiveOverviewJson(@ShardKey UUID id) {
+        return clientRepository.findActiveOverviewJson(id, LocalDate.now())
                 .orElseThrow(() -> new NotFoundException("Client not found or deleted"));
+    }
+
+    /**
+     * Search ACTIVE clients whose name, email or company identifier contains a word close to the query,
+     * or starting with it (case-insensitive, trigram word similarity), best match first.
+     * {@code after} is the cursor returned with the previous page, {@code null} for the first page.
+     * Every shard is searched in parallel; the page holds the best hits of them all.
+     * A query matching more clients than {@link #SEARCH_MAX_CANDIDATES} per field on a shard is ranked among the
+     * candidates found first: the page is then flagged truncated and has no next page, rather than paging through
+     * an incomplete ranking.
+     */
+    public ClientSearchPage search(String query, String after, int limit) {
+        String q = query.strip().toLowerCase(Locale.ROOT);
+        if (q.length() < 3) {
+            throw new BadRequestException("q must contain at least 3 characters");
+        }
+        ClientSearchCursor cursor = ClientSearchCursor.decode(after);
 
-        client.setName(name);
-        client.setEmail(email);
-        client.setPhone(phone);
+        // one extra hit tells whether there is a next page
+        List<ClientSearchHit> found = shards.onAll(() -> transactionTemplate.execute(tx ->
+                        clientRepository.search(q, SEARCH_MAX_CANDIDATES, cursor.score(), cursor.id(), limit + 1)))
+                .values().stream()
+                .flatMap(List::stream)
+                .toList();
+        boolean truncated = found.stream().anyMatch(ClientSearchHit::isTruncated);
+        List<ClientSearchHit> hits = found.stream()
+                .sorted(SEARCH_ORDER)
+                .limit(limit + 1)
+                .toList();
+        List<ClientSearchHit> page = hits.subList(0, Math.min(limit, hits.size()));
 
+        List<UUID> ids = page.stream().map(ClientSearchHit::getId).toList();
+        Map<UUID, Client> clients = shards.onAll(() -> transactionTemplate.execute(tx -> clientRepository.findAllById(ids)))
+                .values().stream()
+                .flatMap(List::stream)
+                .filter(c -> !c.isDeleted())
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        // the cursor follows the hits: a client deleted since the search is skipped, not the rest of the ranking
+        String next = hits.size() > limit && !truncated
+                ? new ClientSearchCursor(page.getLast().getScore(), page.getLast().getId()).encode()
+                : null;
+        return new ClientSearchPage(page.stream()
+                .map(h -> clients.get(h.getId()))
+                .filter(Objects::nonNull)
+                .toList(), next, truncated);
+    }
+
+    /**
+     * Update limited fields of a client: name, email, phone.
+     * One UPDATE ... RETURNING: the client is not loaded first. Its cached copy here is soft-locked before the
+     * update, so a concurrent read of the old row cannot cache it again; here and on the other nodes it is
+     * dropped once the update commits.
+     */
+    @Transactional
+    public Client updateContactInfo(@ShardKey UUID id, String name, String email, String phone) {
+        cacheInvalidations.evictAndInvalidate(LocalCache.CLIENT, id);
+        coalescedReads.forgetAfterCommit(id);
+        checkUniqueAcrossShards(id, email, null, "Email already exists / constraint violated");
         try {
-            return clientRepository.saveAndFlush(client); // <—
+            return clientWriteRepository.updateContactInfo(id, name, email, phone)
+                    .orElseThrow(() -> new NotFoundException("Client not found or deleted"));
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already exists / constraint violated", e);
         }
@@ -90,16 +194,32 @@ public class ClientService {
 
     /**
      * Soft-delete a client and close all its ACTIVE contracts by setting their endDate to today.
+     * An interactive request: it stays on the oltp pool, one transaction for the client and its contracts.
      */
     @Transactional
-    public void deleteClient(UUID id) {
+    public void deleteClient(@ShardKey UUID id) {
         Client client = clientRepository.findActiveById(id)
                 .orElseThrow(() -> new NotFoundException("Client not found or already deleted"));
 
         LocalDate today = LocalDate.now();
+        List<BigDecimal> closedCosts = contractRepository.findActiveCostsByClient(id, today);
         contractRepository.closeActiveContracts(id, today);
+        costDistributions.closed(client.getType(), closedCosts);
 
         client.markAsDeleted();
         clientRepository.save(client);
+        cacheInvalidations.invalidate(LocalCache.CLIENT, id);
+        coalescedReads.forgetAfterCommit(id);
+    }
+
+    /**
+     * Each shard's unique constraints only cover its own clients: with several shards, every one is asked first
+     * (in parallel). Two concurrent writes of the same value to different shards can still both pass.
+     */
+    private void checkUniqueAcrossShards(UUID id, String email, String companyIdentifier, String message) {
+        if (shards.names().size() > 1
+                && shards.onAll(() -> clientWriteRepository.isTaken(id, email, companyIdentifier)).containsValue(true)) {
+            throw new ConflictException(message, null);
+        }
     }
-}
\ No newline at end of file
+}
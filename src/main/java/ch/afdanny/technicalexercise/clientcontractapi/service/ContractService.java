@@ -1,103 +1,241 @@
 package ch.afdanny.technicalexercise.clientcontractapi.service;
 
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostDistributions;
+import ch.afdanny.technicalexercise.clientcontractapi.concurrency.Coalesced;
+import ch.afdanny.technicalexercise.clientcontractapi.concurrency.CoalescedReads;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Bulkhead;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.ShardKey;
+import ch.afdanny.technicalexercise.clientcontractapi.datasource.Shards;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.BadRequestException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.ConflictException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.groupcommit.GroupCommitter;
 import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
 import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
 import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractJsonRepository;
 import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractWriteRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Timed // method.timed{class, method}
 @RequiredArgsConstructor
 public class ContractService {
 
     private final ContractRepository contractRepository;
     private final ClientRepository clientRepository;
+    private final ContractJsonRepository contractJsonRepository;
+    private final ContractWriteRepository contractWriteRepository;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitter groupCommitter;
+    private final CostDistributions costDistributions;
+    private final CoalescedReads coalescedReads;
+
+    /** Order of {@link ContractRepository#findExpiringBetween}: end date, then id. */
+    private static final Comparator<Contract> EXPIRY_ORDER = Comparator
+            .comparing(Contract::getEndDate)
+            .thenComparing(Contract::getId, Shards.UUID_ORDER);
 
     /**
      * Create a new contract for an ACTIVE client.
+     * With group commit, the insert is committed together with concurrent writes of the same shard.
+     * Once committed, an active contract is counted in the cost distribution.
      */
-    @Transactional
-    public Contract create(UUID clientId, LocalDate startDate, LocalDate endDate, BigDecimal costAmount) {
-        Client client = clientRepository.findActiveById(clientId)
-                .orElseThrow(() -> new NotFoundException("Client not found or deleted"));
+    public Contract create(@ShardKey UUID clientId, LocalDate startDate, LocalDate endDate, BigDecimal costAmount) {
+        if (groupCommitter.isEnabled()) {
+            return createGrouped(clientId, startDate, endDate, costAmount);
+        }
+        return transactionTemplate.execute(tx -> {
+            Client client = clientRepository.findActiveById(clientId)
+                    .orElseThrow(() -> new NotFoundException("Client not found or deleted"));
+
+            validateDateRange(startDate, endDate);
+
+            Contract c = Contract.builder()
+                    .client(client)
+                    .startDate(startDate)
+                    .endDate(endDate) // null => active/open-ended
+                    .costAmount(costAmount)
+                    .lastUpdateDate(LocalDate.now())
+                    .build();
+
+            try {
+                Contract saved = contractRepository.save(c);
+                costDistributions.created(client.getType(), saved);
+                coalescedReads.forgetAfterCommit(clientId);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Constraint violation while creating contract", e);
+            }
+        });
+    }
 
+    private Contract createGrouped(UUID clientId, LocalDate startDate, LocalDate endDate, BigDecimal costAmount) {
         validateDateRange(startDate, endDate);
-
+        LocalDate today = LocalDate.now();
         Contract c = Contract.builder()
-                .client(client)
-                .startDate(startDate)
-                .endDate(endDate) // null => active/open-ended
+                .id(UUID.randomUUID())
+                .client(contractWriteRepository.clientReference(clientId))
+                .startDate(startDate != null ? startDate : today)
+                .endDate(endDate)
                 .costAmount(costAmount)
-                .lastUpdateDate(LocalDate.now())
+                .lastUpdateDate(today)
                 .build();
-
         try {
-            return contractRepository.save(c);
+            // recorded within the group's transaction: counted only if the group commits with this insert
+            boolean inserted = groupCommitter.execute(() -> contractWriteRepository.insertForActiveClient(c)
+                    .map(clientType -> {
+                        costDistributions.created(clientType, c);
+                        coalescedReads.forgetAfterCommit(clientId);
+                        return true;
+                    })
+                    .orElse(false));
+            if (!inserted) {
+                throw new NotFoundException("Client not found or deleted");
+            }
+            return c;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Constraint violation while creating contract", e);
         }
     }
 
     /**
-     * Load a contract by id (regardless of client deletion status).
+     * Load a contract of a client by id (regardless of client deletion status), on that client's shard.
      */
     @Transactional(readOnly = true)
-    public Contract getById(UUID id) {
-        return contractRepository.findById(id)
+    public Contract getById(@ShardKey UUID clientId, UUID id) {
+        return contractRepository.findByIdAndClientId(id, clientId)
                 .orElseThrow(() -> new NotFoundException("Contract not found"));
     }
 
+    /**
+     * Active contracts of a client; concurrent calls for the same client share one query.
+     */
+    @Coalesced("contract.list-active")
     @Transactional(readOnly = true)
-    public List<Contract> listActiveByClient(UUID clientId) {
+    public List<Contract> listActiveByClient(@ShardKey UUID clientId) {
         LocalDate today = LocalDate.now();
         return contractRepository.findActiveContractsByClient(clientId, today);
     }
 
+    /**
+     * Writes the active contracts of a client to {@code out} as NDJSON (optionally only those updated since
+     * {@code updatedSince}). Each line is rendered by PostgreSQL and copied as is: no entity, no DTO, no Jackson.
+     * Runs on the reporting pool, since the connection stays busy while the client reads the stream.
+     */
+    @Bulkhead(Bulkhead.REPORTING)
+    @Transactional(readOnly = true)
+    public void writeActiveByClientNdjson(@ShardKey UUID clientId, LocalDate updatedSince, OutputStream out) throws IOException {
+        contractJsonRepository.streamActiveByClient(clientId, LocalDate.now(), updatedSince, json -> {
+            out.write(json);
+            out.write('\n');
+        });
+    }
+
+    /**
+     * Incremental pull (updatedSince) used by the billing / reporting syncs: runs on the reporting pool.
+     */
+    @Bulkhead(Bulkhead.REPORTING)
     @Transactional(readOnly = true)
-    public List<Contract> listActiveByClientSince(UUID clientId, LocalDate updatedSince) {
+    public List<Contract> listActiveByClientSince(@ShardKey UUID clientId, LocalDate updatedSince) {
         LocalDate today = LocalDate.now();
         return contractRepository.findActiveContractsByClientUpdatedSince(clientId, today, updatedSince);
     }
 
     /**
-     * Update mutable fields:
-     *  - costAmount
+     * Active contracts ending within the next {@code days} days, soonest first, at most {@code limit}.
+     * Every shard returns its first {@code limit}; the soonest of them all are kept.
      */
-    @Transactional
-    public Contract update(UUID id, BigDecimal newCostAmount) {
-        Contract contract = contractRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
-
-
-        if (newCostAmount != null) {
-            contract.setCostAmount(newCostAmount);
-        }
+    public List<Contract> listExpiringWithin(int days, int limit) {
+        LocalDate today = LocalDate.now();
+        return shards.onAll(() -> transactionTemplate.execute(tx ->
+                        contractRepository.findExpiringBetween(today, today.plusDays(days), PageRequest.of(0, limit))))
+                .values().stream()
+                .flatMap(List::stream)
+                .sorted(EXPIRY_ORDER)
+                .limit(limit)
+                .toList();
+    }
 
-        contract.setLastUpdateDate(LocalDate.now());
+    /**
+     * Update mutable fields of a client's contract, on that client's shard:
+     *  - costAmount
+     * With group commit, the update is committed together with concurrent writes of the same shard.
+     */
+    public Contract update(@ShardKey UUID clientId, UUID id, BigDecimal newCostAmount) {
         try {
-            return contractRepository.saveAndFlush(contract);
+            if (groupCommitter.isEnabled()) {
+                LocalDate today = LocalDate.now();
+                return groupCommitter.execute(() -> contractWriteRepository.updateCost(clientId, id, newCostAmount, today)
+                                .map(this::costUpdated))
+                        .orElseThrow(() -> new NotFoundException("Contract not found"));
+            }
+            return transactionTemplate.execute(tx -> contractRepository.findByIdAndClientId(id, clientId)
+                    .map(contract -> {
+                        BigDecimal previousCost = contract.getCostAmount();
+                        if (newCostAmount != null) {
+                            contract.setCostAmount(newCostAmount);
+                        }
+                        contract.setLastUpdateDate(LocalDate.now());
+                        Contract saved = contractRepository.saveAndFlush(contract);
+                        costDistributions.costChanged(saved.getClient().getType(), saved, previousCost);
+                        coalescedReads.forgetAfterCommit(clientId);
+                        return saved;
+                    })
+                    .orElseThrow(() -> new NotFoundException("Contract not found")));
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Constraint violation while updating contract", e);
         }
     }
 
+    /**
+     * Update mutable fields of a contract addressed by its id alone, as {@link #update(UUID, UUID, BigDecimal)}.
+     * The id does not tell the shard: its client is looked up on every shard (the only one when unsharded),
+     * then the update runs on that client's shard.
+     */
+    public Contract update(UUID id, BigDecimal newCostAmount) {
+        UUID clientId = shards.onAll(() -> transactionTemplate.execute(tx -> contractRepository.findById(id)
+                        .map(contract -> contract.getClient().getId())))
+                .values().stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Contract not found"));
+        return shards.on(shards.shardOf(clientId), () -> update(clientId, id, newCostAmount));
+    }
+
+    /**
+     * Sum of the active contracts' cost; concurrent calls for the same client share one query.
+     */
+    @Coalesced("contract.sum-active")
     @Transactional(readOnly = true)
-    public BigDecimal sumActiveCost(UUID clientId) {
+    public BigDecimal sumActiveCost(@ShardKey UUID clientId) {
         return contractRepository.sumActiveCostByClient(clientId, LocalDate.now());
     }
 
+    private Contract costUpdated(ContractWriteRepository.CostUpdate update) {
+        costDistributions.costChanged(update.clientType(), update.contract(), update.previousCost());
+        coalescedReads.forgetAfterCommit(update.contract().getClient().getId());
+        return update.contract();
+    }
+
     private static void validateDateRange(LocalDate start, LocalDate end) {
         if (end != null && end.isBefore(start)) {
             throw new BadRequestException("endDate must be greater than or equal to startDate");
@@ -0,0 +1,27 @@
+package ch.afdanny.technicalexercise.clientcontractapi.startup;
+
+import ch.afdanny.technicalexercise.clientcontractapi.validation.CompanyIdentifierValidator;
+import ch.afdanny.technicalexercise.clientcontractapi.validation.PhoneValidator;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Native-image hints for what is loaded by name rather than through Spring beans:
+ * the Caffeine JCache provider and its configuration, and the custom constraint validators.
+ */
+public class AppRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("application.conf");
+
+        hints.reflection()
+                .registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(PhoneValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(CompanyIdentifierValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
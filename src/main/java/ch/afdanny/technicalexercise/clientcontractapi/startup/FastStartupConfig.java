@@ -0,0 +1,22 @@
+package ch.afdanny.technicalexercise.clientcontractapi.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * "fast-startup" profile: beans are created lazily, except the REST controllers, so the hot path
+ * (controllers, services, mappers, repositories, EntityManagerFactory) is ready before the first request.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerControllers() {
+        return (beanName, definition, type) -> AnnotatedElementUtils.hasAnnotation(type, RestController.class);
+    }
+}
@@ -0,0 +1,19 @@
+package ch.afdanny.technicalexercise.clientcontractapi.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Company identifier: three ASCII letters, a dash and three digits, i.e. {@code ^[A-Za-z]{3}-\d{3}$} (e.g. AAA-123).
+ */
+@Documented
+@Target({ ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT })
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = CompanyIdentifierValidator.class)
+public @interface CompanyIdentifier {
+    String message() default "Invalid company identifier format (e.g. AAA-123)";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
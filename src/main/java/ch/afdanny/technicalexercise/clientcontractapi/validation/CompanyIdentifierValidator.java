@@ -0,0 +1,33 @@
+package ch.afdanny.technicalexercise.clientcontractapi.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link CompanyIdentifier}: accepts exactly what {@code ^[A-Za-z]{3}-\d{3}$} matches
+ * ({@code \d} being ASCII digits), by checking the 7 characters by position. Null is valid.
+ */
+public class CompanyIdentifierValidator implements ConstraintValidator<CompanyIdentifier, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) return true;
+        if (value.length() != 7) return false;
+
+        return isAsciiLetter(value.charAt(0))
+                && isAsciiLetter(value.charAt(1))
+                && isAsciiLetter(value.charAt(2))
+                && value.charAt(3) == '-'
+                && isDigit(value.charAt(4))
+                && isDigit(value.charAt(5))
+                && isDigit(value.charAt(6));
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
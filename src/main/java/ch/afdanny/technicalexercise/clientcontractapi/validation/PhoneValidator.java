@@ -0,0 +1,30 @@
+package ch.afdanny.technicalexercise.clientcontractapi.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link Phone}: accepts exactly what {@code ^\+?[0-9]{8,15}$} matches, with a single
+ * character scan (no regex, no allocation). Null is valid, as with {@code @Pattern}.
+ */
+public class PhoneValidator implements ConstraintValidator<Phone, CharSequence> {
+
+    private static final int MIN_DIGITS = 8;
+    private static final int MAX_DIGITS = 15;
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null) return true;
+
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '+' ? 1 : 0;
+        int digits = length - start;
+        if (digits < MIN_DIGITS || digits > MAX_DIGITS) return false;
+
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package ch.afdanny.technicalexercise.clientcontractapi;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Databases of their own for the tests that need an empty schema (built by Liquibase) or several databases:
+ * all created on one PostgreSQL container, the image of {@link TestcontainersConfiguration}, started on first use
+ * and shared by every test class of the run. Classes using it are annotated
+ * {@code @Testcontainers(disabledWithoutDocker = true)}.
+ */
+public final class TestDatabases {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    private TestDatabases() {
+    }
+
+    /** Drops {@code name} if a previous run left it, creates it empty and returns its JDBC URL. */
+    public static synchronized String create(String name) throws SQLException {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        try (var connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             var statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + name + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + name);
+        }
+        return "jdbc:postgresql://" + POSTGRES.getHost() + ":" + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + name;
+    }
+
+    /** Creates {@code name} and makes it the application's datasource ({@code spring.datasource.*}). */
+    public static void register(DynamicPropertyRegistry registry, String name) throws SQLException {
+        String url = create(name);
+        registry.add("spring.datasource.url", () -> url);
+        credentials(registry);
+    }
+
+    /** The container's user as {@code spring.datasource.username / password}, for databases registered otherwise. */
+    public static void credentials(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
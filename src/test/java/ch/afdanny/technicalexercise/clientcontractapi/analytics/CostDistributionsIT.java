@@ -0,0 +1,129 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import ch.afdanny.technicalexercise.clientcontractapi.expiry.ContractExpiredEvent;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Integration test for the in-memory cost distribution against PostgreSQL.
+ *
+ * Validates:
+ *  - contract creates, cost updates, client deletes and expiries update it once committed, never on rollback
+ *  - a rebuild counts exactly the active contracts of the database, per client type
+ */
+@SpringBootTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+class CostDistributionsIT {
+
+    /** Larger than any other test's cost amount: the maximum is this test's. */
+    private static final BigDecimal HIGH = new BigDecimal("900000000.00");
+
+    @Autowired
+    private CostDistributions costDistributions;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writes_updateTheDistributionOnceCommitted() {
+        costDistributions.rebuild();
+        long before = count(ClientType.PERSON);
+        UUID clientId = newClient();
+
+        Contract high = contractService.create(clientId, null, null, HIGH);
+        contractService.create(clientId, LocalDate.now(), LocalDate.now().plusDays(10), new BigDecimal("20.00"));
+        contractService.create(clientId, LocalDate.now().minusDays(10), LocalDate.now().minusDays(1), new BigDecimal("30.00"));
+        assertThat(count(ClientType.PERSON)).as("ended contract not counted").isEqualTo(before + 2);
+        assertThat(costDistributions.snapshot().get(ClientType.PERSON).quantile(1))
+                .isCloseTo(HIGH.doubleValue(), within(HIGH.doubleValue() * 0.01));
+
+        contractService.update(clientId, high.getId(), new BigDecimal("10.00"));
+        assertThat(count(ClientType.PERSON)).isEqualTo(before + 2);
+        assertThat(costDistributions.snapshot().get(ClientType.PERSON).quantile(1)).isLessThan(HIGH.doubleValue() / 2);
+
+        clientService.deleteClient(clientId);
+        assertThat(count(ClientType.PERSON)).as("closed with the client").isEqualTo(before);
+        assertThat(meterRegistry.get("cost.distribution.contracts").tag("type", "person").gauge().value())
+                .isEqualTo(before);
+    }
+
+    @Test
+    void rolledBackWrites_areNotCounted() {
+        UUID clientId = newClient();
+        contractService.create(clientId, null, null, BigDecimal.TEN);
+        long before = count(ClientType.PERSON);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            events.publishEvent(new ContractExpiredEvent(UUID.randomUUID(), clientId, LocalDate.now(),
+                    BigDecimal.TEN, ClientType.PERSON));
+            tx.setRollbackOnly();
+        });
+
+        assertThat(count(ClientType.PERSON)).isEqualTo(before);
+    }
+
+    @Test
+    void rebuild_countsTheActiveContractsOfTheDatabase() {
+        UUID clientId = newClient();
+        contractService.create(clientId, null, null, new BigDecimal("42.00"));
+        contractService.create(clientId, null, null, new BigDecimal("0.01"));
+
+        costDistributions.rebuild();
+
+        for (ClientType type : ClientType.values()) {
+            assertThat(count(type)).as("%s contracts", type).isEqualTo(jdbcTemplate.queryForObject("""
+                    SELECT count(*) FROM contract ct JOIN client c ON c.id = ct.client_id
+                     WHERE c.type = ? AND (ct.end_date IS NULL OR ct.end_date > CURRENT_DATE)
+                    """, Long.class, type.name()));
+        }
+        assertThat(costDistributions.rebuiltAt()).isNotNull();
+        assertThat(meterRegistry.get("cost.distribution.rebuild").timer().count()).isPositive();
+    }
+
+    private long count(ClientType type) {
+        return costDistributions.snapshot().get(type).count();
+    }
+
+    private UUID newClient() {
+        return clientService.createPerson("Cost Distribution", "cd-" + UUID.randomUUID() + "@test.ch", "+41790000000",
+                LocalDate.of(1990, 1, 1)).getId();
+    }
+}
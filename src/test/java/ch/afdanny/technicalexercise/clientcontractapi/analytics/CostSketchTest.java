@@ -0,0 +1,122 @@
+package ch.afdanny.technicalexercise.clientcontractapi.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for {@link CostSketch} (no Spring context required).
+ */
+class CostSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    @DisplayName("Every quantile is within the relative accuracy of the exact value")
+    void quantiles_areWithinTheRelativeAccuracy() {
+        var sketch = new CostSketch(ACCURACY);
+        var random = new Random(42);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // log-normal, as cost amounts: from cents to millions
+            values[i] = Math.round(Math.exp(6 + 2.5 * random.nextGaussian()) * 100) / 100.0 + 0.01;
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(sketch.count()).isEqualTo(values.length);
+        for (double q : new double[]{0, 0.01, 0.25, 0.5, 0.9, 0.95, 0.99, 0.999, 1}) {
+            double exact = values[(int) (q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).as("q=%s", q).isCloseTo(exact, within(exact * ACCURACY));
+        }
+    }
+
+    @Test
+    @DisplayName("Removing values gives the same sketch as never adding them")
+    void remove_undoesAdd() {
+        var sketch = new CostSketch(ACCURACY);
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+        for (int i = 51; i <= 100; i++) {
+            sketch.remove(i);
+        }
+
+        assertThat(sketch.count()).isEqualTo(50);
+        assertThat(sketch.quantile(1)).isCloseTo(50, within(50 * ACCURACY));
+    }
+
+    @Test
+    @DisplayName("Merged sketches equal one sketch of all the values; accuracies must match")
+    void merge_addsTheCounts() {
+        var person = new CostSketch(ACCURACY);
+        var company = new CostSketch(ACCURACY);
+        var all = new CostSketch(ACCURACY);
+        for (int i = 1; i <= 1000; i++) {
+            (i % 3 == 0 ? company : person).add(i);
+            all.add(i);
+        }
+
+        var merged = person.copy();
+        merged.merge(company);
+
+        assertThat(merged.count()).isEqualTo(1000);
+        assertThat(merged.histogram()).isEqualTo(all.histogram());
+        for (double q = 0; q <= 1; q += 0.1) {
+            assertThat(merged.quantile(q)).isEqualTo(all.quantile(q));
+        }
+        assertThat(person.count()).as("copy is independent").isEqualTo(667);
+        assertThatThrownBy(() -> merged.merge(new CostSketch(0.02))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Histogram counts every value in its 1-2-5 bin, empty bins between included")
+    void histogram_usesA125Scale() {
+        var sketch = new CostSketch(ACCURACY);
+        sketch.add(3);
+        sketch.add(15);
+        sketch.add(17);
+        sketch.add(600);
+
+        assertThat(sketch.histogram()).containsExactly(
+                new CostSketch.Bin(2, 5, 1),
+                new CostSketch.Bin(5, 10, 0),
+                new CostSketch.Bin(10, 20, 2),
+                new CostSketch.Bin(20, 50, 0),
+                new CostSketch.Bin(50, 100, 0),
+                new CostSketch.Bin(100, 200, 0),
+                new CostSketch.Bin(200, 500, 0),
+                new CostSketch.Bin(500, 1000, 1));
+    }
+
+    @Test
+    @DisplayName("Empty sketch: no value, no bin; removals never make counts negative")
+    void empty() {
+        var sketch = new CostSketch(ACCURACY);
+        sketch.remove(10);
+
+        assertThat(sketch.count()).isZero();
+        assertThat(sketch.quantile(0.5)).isNaN();
+        assertThat(sketch.histogram()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Buckets computed elsewhere (SQL) with logGamma match the sketch's own")
+    void addToBucket_matchesIndex() {
+        var sketch = new CostSketch(ACCURACY);
+        var direct = new CostSketch(ACCURACY);
+        for (double value : new double[]{0.01, 1, 99.99, 12_345.67}) {
+            sketch.addToBucket((int) Math.ceil(Math.log(value) / sketch.logGamma()), 1);
+            direct.add(value);
+        }
+
+        assertThat(sketch.histogram()).isEqualTo(direct.histogram());
+        assertThat(sketch.quantile(0.5)).isEqualTo(direct.quantile(0.5));
+    }
+}
@@ -0,0 +1,212 @@
+package ch.afdanny.technicalexercise.clientcontractapi.cache;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for cross-node cache invalidation over PostgreSQL LISTEN / NOTIFY.
+ * "Other nodes" are simulated by sending and listening to notifications on separate connections.
+ *
+ * Validates:
+ *  - an invalidation from another node evicts the local L2 cache entry
+ *  - a client update notifies the other nodes on commit only, and evicts the writer's own entry
+ *  - a read of the old row, concurrent with the update, is not cached over it
+ *  - after its connection is killed, the listener reconnects and clears the local caches
+ */
+@SpringBootTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+class CacheInvalidationIT {
+
+    private static final String URL = "jdbc:postgresql://localhost:5433/client_contract_db";
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private CacheInvalidationPublisher publisher;
+
+    @Autowired
+    private CacheInvalidationProperties properties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Connection otherNode;
+    private UUID clientId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        otherNode = DriverManager.getConnection(URL, "postgres", "postgres");
+        otherNode.createStatement().execute("LISTEN " + properties.channel());
+        clientId = clientService.createPerson("Cached", "cached-" + UUID.randomUUID() + "@test.ch", "+41790000000",
+                LocalDate.of(1990, 1, 1)).getId();
+        clientService.readActive(clientId);
+        assertThat(cached()).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        otherNode.close();
+        new JdbcTemplate(dataSource).update("DELETE FROM person_client WHERE id = ?", clientId);
+        new JdbcTemplate(dataSource).update("DELETE FROM client WHERE id = ?", clientId);
+    }
+
+    @Test
+    void invalidationFromAnotherNode_evictsTheLocalEntry() throws SQLException {
+        // when
+        try (var statement = otherNode.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, properties.channel());
+            statement.setString(2, "other-node|" + System.currentTimeMillis() + "|client|" + clientId);
+            statement.execute();
+        }
+
+        // then
+        await(() -> !cached());
+        assertThat(meterRegistry.get("cache.invalidation.lag").timer().count()).isPositive();
+    }
+
+    @Test
+    void clientUpdate_notifiesOnCommitOnly_andEvictsTheWriterEntry() throws Exception {
+        // given: a rolled back transaction sends nothing
+        transactionTemplate.executeWithoutResult(tx -> {
+            publisher.invalidate(LocalCache.CLIENT, clientId);
+            tx.setRollbackOnly();
+        });
+        assertThat(received(300)).isEmpty();
+
+        // when
+        clientService.updateContactInfo(clientId, "Updated", "updated-" + clientId + "@test.ch", "+41790000001");
+
+        // then
+        List<String> payloads = received(2000);
+        assertThat(payloads).hasSize(1);
+        assertThat(payloads.getFirst()).endsWith("|client|" + clientId);
+        // the update is plain SQL: the entry is dropped, not refreshed, and cached again by the next read
+        assertThat(clientService.readActive(clientId).getName()).isEqualTo("Updated");
+        assertThat(cached()).isTrue();
+        assertThat(clientService.readActive(clientId).getName()).isEqualTo("Updated");
+    }
+
+    @Test
+    void clientUpdate_keepsAConcurrentReadOfTheOldRowOutOfTheCache() {
+        // given: a transaction that saw the client before the update, and reads it after
+        EntityManager reader = entityManagerFactory.createEntityManager();
+        try {
+            reader.getTransaction().begin();
+            reader.unwrap(Session.class).doWork(connection -> {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                    statement.execute("SELECT count(*) FROM client"); // takes the snapshot
+                }
+            });
+            entityManagerFactory.getCache().evict(Client.class, clientId);
+
+            // when
+            clientService.updateContactInfo(clientId, "Updated", "updated-" + clientId + "@test.ch", "+41790000001");
+            assertThat(reader.find(Client.class, clientId).getName()).as("old row").isEqualTo("Cached");
+            reader.getTransaction().commit();
+        } finally {
+            reader.close();
+        }
+
+        // then: the old row was not cached
+        EntityManager next = entityManagerFactory.createEntityManager();
+        try {
+            assertThat(next.find(Client.class, clientId).getName()).isEqualTo("Updated");
+        } finally {
+            next.close();
+        }
+    }
+
+    @Test
+    void lostConnection_reconnectsAndClearsTheLocalCaches() {
+        // when: the listening sessions are killed
+        double reconnects = reconnects();
+        new JdbcTemplate(dataSource).queryForList("""
+                SELECT pg_terminate_backend(pid) FROM pg_stat_activity
+                 WHERE pid <> pg_backend_pid() AND query IN ('LISTEN %1$s', 'SELECT 1')
+                """.formatted(properties.channel()));
+
+        // then
+        await(() -> reconnects() > reconnects);
+        assertThat(cached()).isFalse();
+    }
+
+    private boolean cached() {
+        return entityManagerFactory.getCache().contains(Client.class, clientId);
+    }
+
+    private double reconnects() {
+        return meterRegistry.find("cache.invalidation.reconnects").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    /** Notifications received by the simulated node within {@code millis}. */
+    private List<String> received(long millis) throws SQLException {
+        List<String> payloads = new ArrayList<>();
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            PGNotification[] notifications = otherNode.unwrap(PGConnection.class).getNotifications(50);
+            if (notifications != null) {
+                for (PGNotification n : notifications) {
+                    payloads.add(n.getParameter());
+                }
+            }
+        }
+        return payloads;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long end = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,279 @@
+package ch.afdanny.technicalexercise.clientcontractapi.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static ch.afdanny.technicalexercise.clientcontractapi.compression.ContentCoding.GZIP;
+import static ch.afdanny.technicalexercise.clientcontractapi.compression.ContentCoding.ZSTD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ResponseCompressionFilter} and the {@code Accept-Encoding} negotiation
+ * (mock servlet API, no Spring context required).
+ */
+class ResponseCompressionFilterTest {
+
+    private static final String JSON = "application/json";
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(new CompressionProperties(
+            true, List.of(ZSTD, GZIP), DataSize.ofBytes(1024), List.of(JSON), 1, 3, 2));
+
+    @Test
+    @DisplayName("Negotiation follows the client weights, then the server preference order")
+    void negotiate_followsWeightsThenServerOrder() {
+        List<ContentCoding> supported = List.of(ZSTD, GZIP);
+
+        assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd", supported)).isEqualTo(ZSTD);
+        assertThat(ContentCoding.negotiate("gzip, deflate, br", supported)).isEqualTo(GZIP);
+        assertThat(ContentCoding.negotiate("zstd;q=0.5, gzip", supported)).isEqualTo(GZIP);
+        assertThat(ContentCoding.negotiate("*;q=0.1, zstd;q=0", supported)).isEqualTo(GZIP);
+        assertThat(ContentCoding.negotiate("x-gzip", supported)).isEqualTo(GZIP);
+        assertThat(ContentCoding.negotiate("identity", supported)).isNull();
+        assertThat(ContentCoding.negotiate("gzip;q=0", supported)).isNull();
+        assertThat(ContentCoding.negotiate("", supported)).isNull();
+        assertThat(ContentCoding.negotiate("gzip, zstd", List.of(GZIP))).isEqualTo(GZIP);
+    }
+
+    @Test
+    @DisplayName("A body above the threshold is gzip-compressed without Content-Length")
+    void largeBody_isGzipped() throws Exception {
+        byte[] body = json(200);
+
+        MockHttpServletResponse response = run("gzip", JSON, body);
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(body);
+        assertThat(response.getContentAsByteArray().length).isLessThan(body.length / 4);
+    }
+
+    @Test
+    @DisplayName("zstd is preferred when the client accepts both codings")
+    void largeBody_isZstdCompressed_whenAccepted() throws Exception {
+        byte[] body = json(200);
+
+        MockHttpServletResponse response = run("gzip, deflate, br, zstd", JSON, body);
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("zstd");
+        assertThat(unzstd(response.getContentAsByteArray())).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("A body below the threshold, or of another content type, is sent as it is")
+    void smallOrIneligibleBody_isNotCompressed() throws Exception {
+        byte[] small = json(2);
+        MockHttpServletResponse smallResponse = run("gzip", JSON, small);
+        assertThat(smallResponse.getHeader("Content-Encoding")).isNull();
+        assertThat(smallResponse.getContentLength()).isEqualTo(small.length);
+        assertThat(smallResponse.getContentAsByteArray()).isEqualTo(small);
+
+        byte[] png = json(200);
+        MockHttpServletResponse pngResponse = run("gzip", "image/png", png);
+        assertThat(pngResponse.getHeader("Content-Encoding")).isNull();
+        assertThat(pngResponse.getContentAsByteArray()).isEqualTo(png);
+    }
+
+    @Test
+    @DisplayName("Once past the threshold, flushed output reaches the client before the body ends")
+    void streamedBody_isCompressedIncrementally() throws Exception {
+        var sizeAtSecondChunk = new AtomicInteger();
+        var response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/x-ndjson");
+                var out = resp.getOutputStream();
+                for (int i = 0; i < 100; i++) {
+                    out.write(("{\"line\":" + i + "}\n").repeat(20).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    if (i == 1) {
+                        sizeAtSecondChunk.set(response.getContentAsByteArray().length);
+                    }
+                }
+            }
+        };
+        var ndjsonFilter = new ResponseCompressionFilter(new CompressionProperties(
+                true, List.of(GZIP), DataSize.ofBytes(256), List.of("application/x-ndjson"), 1, 3, 2));
+
+        ndjsonFilter.doFilter(request("gzip"), response, new MockFilterChain(servlet));
+
+        assertThat(sizeAtSecondChunk.get()).as("bytes beyond the 10-byte gzip header").isGreaterThan(10);
+        assertThat(new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8))
+                .startsWith("{\"line\":0}\n").endsWith("{\"line\":99}\n");
+    }
+
+    @Test
+    @DisplayName("Pooled gzip encoders are reset between responses")
+    void pooledEncoders_areReusedCleanly() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            byte[] body = json(100 + i);
+            assertThat(gunzip(run("gzip", JSON, body).getContentAsByteArray())).isEqualTo(body);
+        }
+    }
+
+    @Test
+    @DisplayName("When the chain throws mid-body, the encoder is released and the stream is not ended as complete")
+    void failingChain_releasesTheEncoderWithoutEndingTheStream() throws Exception {
+        for (ContentCoding coding : List.of(GZIP, ZSTD)) {
+            var response = new MockHttpServletResponse();
+            HttpServlet servlet = new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                    resp.setContentType(JSON);
+                    resp.getOutputStream().write(json(200));
+                    resp.getOutputStream().flush();
+                    throw new IllegalStateException("serialization failed");
+                }
+            };
+
+            assertThatThrownBy(() -> filter.doFilter(request(coding.token()), response, new MockFilterChain(servlet)))
+                    .hasMessage("serialization failed");
+            byte[] truncated = response.getContentAsByteArray();
+            assertThat(response.getHeader("Content-Encoding")).isEqualTo(coding.token());
+            assertThatThrownBy(() -> { if (coding == GZIP) gunzip(truncated); else unzstd(truncated); })
+                    .isInstanceOf(IOException.class);
+        }
+
+        byte[] body = json(150);
+        assertThat(gunzip(run("gzip", JSON, body).getContentAsByteArray())).as("pooled encoder reset").isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("A response completed asynchronously, after the filter returned, is sent uncompressed and in full")
+    void asyncResponse_bypassesCompression() throws Exception {
+        byte[] body = json(200);
+        var async = new AtomicReference<AsyncContext>();
+        var request = request("gzip");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setContentType(JSON);
+                async.set(req.startAsync(req, resp));
+            }
+        };
+
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        async.get().getResponse().getOutputStream().write(body);
+        async.get().complete();
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("Non-blocking writes are delegated to the response stream")
+    void writeListener_isDelegated() throws Exception {
+        var listener = new AtomicReference<WriteListener>();
+        var underlying = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                listener.set(writeListener);
+            }
+
+            @Override
+            public void write(int b) {
+            }
+        };
+        var response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return underlying;
+            }
+        };
+        WriteListener mine = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.getOutputStream().setWriteListener(mine);
+                assertThat(resp.getOutputStream().isReady()).isFalse();
+            }
+        };
+
+        filter.doFilter(request("gzip"), response, new MockFilterChain(servlet));
+
+        assertThat(listener.get()).isSameAs(mine);
+    }
+
+    private MockHttpServletResponse run(String acceptEncoding, String contentType, byte[] body) throws Exception {
+        var response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                // written in small chunks, as Jackson does through its output buffer
+                for (int off = 0; off < body.length; off += 500) {
+                    resp.getOutputStream().write(body, off, Math.min(500, body.length - off));
+                }
+                resp.getOutputStream().flush();
+            }
+        };
+        filter.doFilter(request(acceptEncoding), response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        var request = new MockHttpServletRequest("GET", "/v1/clients/1/contracts/active");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static byte[] json(int contracts) {
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < contracts; i++) {
+            sb.append(i == 0 ? "" : ",")
+                    .append("{\"id\":\"00000000-0000-0000-0000-").append("%012d".formatted(i))
+                    .append("\",\"startDate\":\"2024-01-01\",\"endDate\":null,\"costAmount\":").append(i * 10.5).append('}');
+        }
+        return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] unzstd(byte[] bytes) throws IOException {
+        try (InputStream in = new ZstdInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
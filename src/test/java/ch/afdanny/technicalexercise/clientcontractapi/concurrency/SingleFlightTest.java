@@ -0,0 +1,190 @@
+package ch.afdanny.technicalexercise.clientcontractapi.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SingleFlight} (no Spring context required).
+ */
+class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight<String> flight;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        flight = new SingleFlight<>("test", registry);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers with the same key share one execution")
+    void concurrentCallers_shareOneExecution() throws Exception {
+        int callers = 8;
+        var executions = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(unchecked(() -> flight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    release.await();
+                    return 42;
+                }))));
+            }
+
+            // wait until every follower is parked on the leader, then let the leader finish
+            awaitCount("follower", callers - 1);
+            release.countDown();
+
+            for (Future<Integer> r : results) {
+                assertThat(r.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(executions.get()).isEqualTo(1);
+            assertThat(count("leader")).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("The leader's exception is rethrown to every follower")
+    void leaderException_isPropagatedToFollowers() throws Exception {
+        var release = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Object> task = unchecked(() -> flight.execute("key", () -> {
+                release.await();
+                throw new IllegalArgumentException("boom");
+            }));
+            var leader = pool.submit(task);
+            awaitCount("leader", 1);
+            var follower = pool.submit(task);
+            awaitCount("follower", 1);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Completed results are not cached and distinct keys never share")
+    void sequentialCalls_andDistinctKeys_executeIndependently() throws Throwable {
+        var executions = new AtomicInteger();
+
+        flight.execute("a", executions::incrementAndGet);
+        flight.execute("a", executions::incrementAndGet);
+        flight.execute("b", executions::incrementAndGet);
+
+        assertThat(executions.get()).isEqualTo(3);
+        assertThat(count("follower")).isZero();
+    }
+
+    @Test
+    @DisplayName("Each follower gets its own copy of the result, never the leader's instance")
+    void followers_getTheirOwnCopy() throws Exception {
+        var copying = new SingleFlight<String>("copying", registry, r -> new ArrayList<>((List<?>) r));
+        var release = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(3);
+        try {
+            Callable<List<Integer>> task = unchecked(() -> copying.execute("key", () -> {
+                release.await();
+                return new ArrayList<>(List.of(1, 2));
+            }));
+            var leader = pool.submit(task);
+            awaitCount("copying", "leader", 1);
+            var followers = List.of(pool.submit(task), pool.submit(task));
+            awaitCount("copying", "follower", 2);
+            release.countDown();
+
+            List<Integer> leaderResult = leader.get(5, TimeUnit.SECONDS);
+            List<Integer> first = followers.get(0).get(5, TimeUnit.SECONDS);
+            List<Integer> second = followers.get(1).get(5, TimeUnit.SECONDS);
+            assertThat(first).isEqualTo(leaderResult).isNotSameAs(leaderResult).isNotSameAs(second);
+            leaderResult.add(3);
+            assertThat(first).containsExactly(1, 2);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("After forget, new callers start their own flight while those waiting keep the running one")
+    void forget_makesNewCallersStartANewFlight() throws Exception {
+        var release = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(3);
+        try {
+            var stale = pool.submit(unchecked(() -> flight.execute("key", () -> {
+                release.await();
+                return "before write";
+            })));
+            awaitCount("leader", 1);
+            var waiting = pool.submit(unchecked(() -> flight.execute("key", () -> "never run")));
+            awaitCount("follower", 1);
+
+            flight.forget("key");
+            var fresh = pool.submit(unchecked(() -> flight.execute("key", () -> "after write")));
+
+            assertThat(fresh.get(5, TimeUnit.SECONDS)).isEqualTo("after write");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+            assertThat(count("leader")).isEqualTo(2);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A re-entrant call for the same key on the leader thread does not deadlock")
+    void reentrantCall_onLeaderThread_runsDirectly() throws Throwable {
+        Integer result = flight.execute("key", () -> flight.execute("key", () -> 7));
+
+        assertThat(result).isEqualTo(7);
+    }
+
+    private static <T> Callable<T> unchecked(SingleFlight.Call<T> call) {
+        return () -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        };
+    }
+
+    private double count(String role) {
+        return count("test", role);
+    }
+
+    private double count(String name, String role) {
+        return registry.get("singleflight.calls").tag("name", name).tag("role", role).counter().count();
+    }
+
+    private void awaitCount(String role, int expected) throws InterruptedException {
+        awaitCount("test", role, expected);
+    }
+
+    private void awaitCount(String name, String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(name, role) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ch.afdanny.technicalexercise.clientcontractapi.controller;
+
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostDistributions;
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostSketch;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.GlobalExceptionHandler;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AnalyticsController.class)
+@Import(GlobalExceptionHandler.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean
+    CostDistributions costDistributions;
+
+    @Test
+    @DisplayName("GET /v1/analytics/cost-distribution -> 200 with overall and per client type percentiles")
+    void costDistribution_returns200() throws Exception {
+        CostSketch person = new CostSketch(0.01);
+        for (int cost = 1; cost <= 100; cost++) {
+            person.add(cost);
+        }
+        CostSketch company = new CostSketch(0.01);
+        company.add(1000);
+        Map<ClientType, CostSketch> sketches = new EnumMap<>(ClientType.class);
+        sketches.put(ClientType.PERSON, person);
+        sketches.put(ClientType.COMPANY, company);
+        given(costDistributions.snapshot()).willReturn(sketches);
+        given(costDistributions.relativeAccuracy()).willReturn(0.01);
+        given(costDistributions.rebuiltAt()).willReturn(Instant.parse("2031-03-10T00:00:00Z"));
+
+        mvc.perform(get("/v1/analytics/cost-distribution").param("quantiles", "0.5,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.relativeAccuracy", is(0.01)))
+                .andExpect(jsonPath("$.all.count", is(101)))
+                .andExpect(jsonPath("$.all.percentiles[1].quantile", is(1.0)))
+                .andExpect(jsonPath("$.all.percentiles[1].value", closeTo(1000, 10)))
+                .andExpect(jsonPath("$.byClientType.person.count", is(100)))
+                .andExpect(jsonPath("$.byClientType.person.percentiles[0].value", closeTo(50.5, 1)))
+                .andExpect(jsonPath("$.byClientType.company.histogram[0].lowerBound", is(1000.0)))
+                .andExpect(jsonPath("$.byClientType.company.histogram[0].count", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /v1/analytics/cost-distribution -> percentiles without value when there is no contract")
+    void costDistribution_empty() throws Exception {
+        given(costDistributions.snapshot()).willReturn(Map.of());
+        given(costDistributions.relativeAccuracy()).willReturn(0.01);
+
+        mvc.perform(get("/v1/analytics/cost-distribution"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all.count", is(0)))
+                .andExpect(jsonPath("$.all.percentiles.length()", is(5)))
+                .andExpect(jsonPath("$.all.percentiles[0].value", nullValue()))
+                .andExpect(jsonPath("$.all.histogram.length()", is(0)));
+    }
+
+    @Test
+    @DisplayName("GET /v1/analytics/cost-distribution -> 400 when a quantile is out of [0, 1]")
+    void costDistribution_returns400_whenQuantileOutOfRange() throws Exception {
+        mvc.perform(get("/v1/analytics/cost-distribution").param("quantiles", "0.5,1.5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", containsString("quantiles")));
+
+        verifyNoInteractions(costDistributions);
+    }
+}
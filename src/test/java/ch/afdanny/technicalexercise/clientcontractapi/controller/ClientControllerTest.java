@@ -1,5 +1,7 @@
 package ch.afdanny.technicalexercise.clientcontractapi.controller;
 
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.DeadlineExceptionHandler;
 import ch.afdanny.technicalexercise.clientcontractapi.dto.request.CreateCompanyClientRequest;
 import ch.afdanny.technicalexercise.clientcontractapi.dto.request.CreatePersonClientRequest;
 import ch.afdanny.technicalexercise.clientcontractapi.dto.request.UpdateClientRequest;
@@ -10,32 +12,45 @@ import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
 import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
 import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
 import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientSearchPage;
 import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
 import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.ConflictException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ActiveContractsSumResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ContractResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,11 +58,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Web MVC slice test for ClientController.
  * - Mocks ClientService & ContractService
  * - Uses real MapStruxect impls (ClientMapperImpl, ContractMapperImpl)
- * - Verifies 201/200/204 success, and 400/404/409 error mappings
+ * - Verifies 201/200/204 success, and 400/404/409/503/504 error mappings
  */
 @WebMvcTest(controllers = ClientController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ ClientMapperImpl.class, ContractMapperImpl.class, GlobalExceptionHandler.class })
+@Import({ ClientMapperImpl.class, ContractMapperImpl.class, GlobalExceptionHandler.class, DeadlineExceptionHandler.class })
 class ClientControllerTest {
 
     private static final String BASE = "/v1/clients";
@@ -293,4 +308,215 @@ class ClientControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status", is(404)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/contracts/active(/sum) avec Accept */* -> 200 OK en JSON, sans JSON ni CBOR (text/plain) -> 406")
+    void getActiveContracts_defaultsToJson() throws Exception {
+        var clientId = UUID.randomUUID();
+        given(clientService.readActive(eq(clientId))).willReturn(samplePerson(clientId));
+        given(contractService.listActiveByClient(eq(clientId))).willReturn(List.of(sampleContract(UUID.randomUUID(), clientId)));
+        given(contractService.sumActiveCost(eq(clientId))).willReturn(new BigDecimal("10.00"));
+
+        for (String path : List.of("/contracts/active", "/contracts/active/sum")) {
+            for (String accept : List.of("*/*", "*/*;q=0.8", "text/html, application/xhtml+xml, */*;q=0.1")) {
+                mvc.perform(get(BASE + "/" + clientId + path).header("Accept", accept))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+            }
+            for (String accept : List.of("text/plain", "text/csv")) {
+                mvc.perform(get(BASE + "/" + clientId + path).header("Accept", accept))
+                        .andExpect(status().isNotAcceptable());
+            }
+        }
+        mvc.perform(get(BASE + "/" + clientId + "/contracts/active/sum"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCostAmount", is(10.00)));
+        mvc.perform(get(BASE + "/" + clientId + "/contracts/active").header("Accept", "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/contracts/active avec Accept: application/cbor -> mêmes DTO en CBOR")
+    void getActiveContracts_cbor() throws Exception {
+        var clientId = UUID.randomUUID();
+        var ct = sampleContract(UUID.randomUUID(), clientId);
+        given(clientService.readActive(eq(clientId))).willReturn(samplePerson(clientId));
+        given(contractService.listActiveByClient(eq(clientId))).willReturn(List.of(ct));
+
+        byte[] cbor = mvc.perform(get(BASE + "/" + clientId + "/contracts/active").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mvc.perform(get(BASE + "/" + clientId + "/contracts/active").accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var cborMapper = CBORMapper.builder().findAndAddModules().build();
+        assertThat(cborMapper.readValue(cbor, ContractResponse[].class))
+                .containsExactly(objectMapper.readValue(json, ContractResponse[].class))
+                .extracting(ContractResponse::costAmount).containsExactly(new BigDecimal("123.45"));
+        assertThat(cbor.length).isLessThan(json.length);
+
+        // encoding published in /schemas/contracts.cddl: UUIDs as 16-byte strings, amounts as tagged decimal fractions
+        var tree = cborMapper.readTree(cbor).get(0);
+        assertThat(tree.get("id").isBinary()).isTrue();
+        assertThat(tree.get("id").binaryValue()).hasSize(16);
+        byte[] costAmountKey = "jcostAmount".getBytes(StandardCharsets.US_ASCII); // 0x6a: text string of 10 bytes
+        int valueAt = indexOf(cbor, costAmountKey) + costAmountKey.length;
+        assertThat(cbor[valueAt]).as("tag 4").isEqualTo((byte) 0xc4);
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/contracts/active/sum avec Accept: application/cbor -> 200 OK en CBOR")
+    void getActiveContractsSum_cbor() throws Exception {
+        var clientId = UUID.randomUUID();
+        given(clientService.readActive(eq(clientId))).willReturn(samplePerson(clientId));
+        given(contractService.sumActiveCost(eq(clientId))).willReturn(new BigDecimal("246.90"));
+
+        byte[] cbor = mvc.perform(get(BASE + "/" + clientId + "/contracts/active/sum").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(CBORMapper.builder().build().readValue(cbor, ActiveContractsSumResponse.class))
+                .isEqualTo(new ActiveContractsSumResponse(clientId, new BigDecimal("246.90")));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/search -> 200 OK, clients typés + curseur de la page suivante")
+    void search_ok() throws Exception {
+        var person = samplePerson(UUID.randomUUID());
+        var company = sampleCompany(UUID.randomUUID());
+        given(clientService.search(eq("acm"), isNull(), eq(2)))
+                .willReturn(new ClientSearchPage(List.of(company, person), "next-token", false));
+
+        mvc.perform(get(BASE + "/search").param("q", "acm").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].type", is("company")))
+                .andExpect(jsonPath("$.items[0].companyIdentifier", is("aaa-123")))
+                .andExpect(jsonPath("$.items[1].type", is("person")))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.truncated", is(false)));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/search -> 400 quand q est trop court")
+    void search_tooShort() throws Exception {
+        mvc.perform(get(BASE + "/search").param("q", "ab"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)));
+
+        verifyNoInteractions(clientService);
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/contracts/active avec Accept: application/x-ndjson -> lignes écrites par le service")
+    void getActiveContracts_ndjson() throws Exception {
+        var clientId = UUID.randomUUID();
+        given(clientService.readActive(eq(clientId))).willReturn(samplePerson(clientId));
+        willAnswer(inv -> {
+            inv.<java.io.OutputStream>getArgument(2).write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(contractService).writeActiveByClientNdjson(eq(clientId), isNull(), any());
+
+        mvc.perform(get(BASE + "/" + clientId + "/contracts/active").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/contracts/active en NDJSON -> 404 si client inexistant, sans toucher aux contrats")
+    void getActiveContracts_ndjson_clientNotFound() throws Exception {
+        var clientId = UUID.randomUUID();
+        given(clientService.readActive(eq(clientId))).willThrow(new NotFoundException("Client not found"));
+
+        mvc.perform(get(BASE + "/" + clientId + "/contracts/active").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+
+        verifyNoInteractions(contractService);
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/overview -> 200 OK, JSON rendu par la base transmis tel quel")
+    void getOverview_ok() throws Exception {
+        var id = UUID.randomUUID();
+        var json = "{\"client\":{\"id\":\"" + id + "\",\"type\":\"PERSON\"},\"activeContracts\":[],\"totalCostAmount\":0}";
+        given(clientService.readActiveOverviewJson(eq(id))).willReturn(json);
+
+        mvc.perform(get(BASE + "/" + id + "/overview"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(json, JsonCompareMode.STRICT));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id}/overview -> 404 si client inexistant")
+    void getOverview_clientNotFound() throws Exception {
+        var id = UUID.randomUUID();
+        given(clientService.readActiveOverviewJson(eq(id))).willThrow(new NotFoundException("Client not found"));
+
+        mvc.perform(get(BASE + "/" + id + "/overview"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id} -> 504 quand la requête SQL dépasse le délai de la requête")
+    void getById_queryTimeout() throws Exception {
+        var id = UUID.randomUUID();
+        given(clientService.readActive(eq(id))).willThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        mvc.perform(get(BASE + "/" + id))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status", is(504)));
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id} -> 503 + Retry-After quand aucune connexion n'est disponible avant l'échéance")
+    void getById_noConnection() throws Exception {
+        var id = UUID.randomUUID();
+        given(clientService.readActive(eq(id))).willThrow(new CannotCreateTransactionException("Could not open JPA EntityManager"));
+
+        Deadline previous = Deadline.enter(Deadline.after(Duration.ZERO)); // DeadlineFilter is not applied here
+        try {
+            mvc.perform(get(BASE + "/" + id))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.status", is(503)));
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("GET /v1/clients/{id} -> pas de 503 si la connexion échoue alors que l'échéance n'est pas dépassée")
+    void getById_connectionFailure_withinDeadline() {
+        var id = UUID.randomUUID();
+        given(clientService.readActive(eq(id))).willThrow(new CannotCreateTransactionException("Connection refused"));
+
+        Deadline previous = Deadline.enter(Deadline.after(Duration.ofMinutes(1)));
+        try {
+            assertThatThrownBy(() -> mvc.perform(get(BASE + "/" + id)))
+                    .hasRootCauseInstanceOf(CannotCreateTransactionException.class);
+        } finally {
+            Deadline.restore(previous);
+        }
+        assertThatThrownBy(() -> mvc.perform(get(BASE + "/" + id))).as("no deadline")
+                .hasRootCauseInstanceOf(CannotCreateTransactionException.class);
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) continue outer;
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+}
@@ -22,12 +22,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -227,4 +230,75 @@ class ContractControllerTest {
                 .andExpect(jsonPath("$.status", is(404)))
                 .andExpect(jsonPath("$.message", containsString("Contract not found")));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("PUT /v1/clients/{clientId}/contracts/{id} -> 200 OK (update only costAmount)")
+    void updateOfClient_returns200() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID clientId = UUID.randomUUID();
+
+        Contract updated = sampleContract(id, clientId);
+        updated.setCostAmount(new BigDecimal("200.00"));
+
+        var req = new ContractUpdateRequest(new BigDecimal("200.00"));
+
+        given(contractService.update(eq(clientId), eq(id), eq(new BigDecimal("200.00"))))
+                .willReturn(updated);
+
+        mvc.perform(put("/v1/clients/" + clientId + "/contracts/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(id.toString())))
+                .andExpect(jsonPath("$.clientId", is(clientId.toString())))
+                .andExpect(jsonPath("$.costAmount", is(200.00)));
+    }
+
+    @Test
+    @DisplayName("PUT /v1/clients/{clientId}/contracts/{id} -> 404 when the contract is not one of the client's")
+    void updateOfClient_returns404_whenOfAnotherClient() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID clientId = UUID.randomUUID();
+        var req = new ContractUpdateRequest(new BigDecimal("10.00"));
+
+        given(contractService.update(eq(clientId), eq(id), any()))
+                .willThrow(new NotFoundException("Contract not found"));
+
+        mvc.perform(put("/v1/clients/" + clientId + "/contracts/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("Contract not found")));
+    }
+
+    // ---------------------------------------------------------------------
+    // EXPIRING
+    // ---------------------------------------------------------------------
+
+    @Test
+    @DisplayName("GET /v1/contracts/expiring -> 200 with the contracts ending within N days")
+    void expiring_returns200() throws Exception {
+        UUID clientId = UUID.randomUUID();
+        Contract contract = sampleContract(UUID.randomUUID(), clientId);
+        contract.setEndDate(LocalDate.now().plusDays(3));
+
+        given(contractService.listExpiringWithin(7, 100)).willReturn(List.of(contract));
+
+        mvc.perform(get("/v1/contracts/expiring").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(contract.getId().toString())))
+                .andExpect(jsonPath("$[0].endDate", is(contract.getEndDate().toString())));
+    }
+
+    @Test
+    @DisplayName("GET /v1/contracts/expiring -> 400 when days is out of range")
+    void expiring_returns400_whenDaysOutOfRange() throws Exception {
+        mvc.perform(get("/v1/contracts/expiring").param("days", "366"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", containsString("days")));
+
+        verifyNoInteractions(contractService);
+    }
+}
@@ -0,0 +1,141 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import ch.afdanny.technicalexercise.clientcontractapi.deadline.Deadline;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link BulkheadRoutingDataSource} driven through {@link BulkheadAspect}
+ * (mocked pools, no Spring context required).
+ */
+class BulkheadRoutingDataSourceTest {
+
+    private final Connection oltpConnection = mock(Connection.class);
+    private final Connection bulkConnection = mock(Connection.class);
+    private final Connection reportingConnection = mock(Connection.class);
+    private BulkheadRoutingDataSource dataSource;
+    private Jobs jobs;
+
+    /** Stands for a service: each method reports the connection its transaction would get. */
+    static class Jobs {
+        BulkheadRoutingDataSource dataSource;
+
+        Connection interactive() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Bulkhead(Bulkhead.BULK)
+        Connection bulk() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Bulkhead(Bulkhead.BULK)
+        Connection[] bulkThenNestedReporting(Jobs self) throws SQLException {
+            Connection nested = self.reporting();
+            return new Connection[]{nested, dataSource.getConnection()};
+        }
+
+        @Bulkhead(Bulkhead.REPORTING)
+        Connection reporting() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Bulkhead("unknown")
+        Connection misconfigured() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Bulkhead(Bulkhead.BULK)
+        void failing() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws SQLException {
+        dataSource = new BulkheadRoutingDataSource(Map.of(
+                Bulkhead.OLTP, pool(oltpConnection),
+                Bulkhead.BULK, pool(bulkConnection),
+                Bulkhead.REPORTING, pool(reportingConnection)));
+        var target = new Jobs();
+        target.dataSource = dataSource;
+        var factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BulkheadAspect());
+        jobs = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Methods without @Bulkhead, and callers outside any method, use the oltp pool")
+    void defaultPool_isOltp() throws SQLException {
+        assertThat(jobs.interactive()).isSameAs(oltpConnection);
+        assertThat(dataSource.getConnection()).isSameAs(oltpConnection);
+    }
+
+    @Test
+    @DisplayName("@Bulkhead routes to its pool only for the duration of the call, nested calls included")
+    void annotatedMethods_useTheirPool_andRestoreThePreviousOne() throws SQLException {
+        assertThat(jobs.bulk()).isSameAs(bulkConnection);
+        assertThat(jobs.bulkThenNestedReporting(jobs)).containsExactly(reportingConnection, bulkConnection);
+        assertThatThrownBy(jobs::failing).isInstanceOf(IllegalStateException.class);
+
+        assertThat(jobs.interactive()).isSameAs(oltpConnection);
+    }
+
+    @Test
+    @DisplayName("An unknown pool name fails instead of falling back to oltp")
+    void unknownPool_fails() {
+        assertThatThrownBy(jobs::misconfigured).hasMessageContaining("unknown");
+        assertThatThrownBy(() -> new BulkheadRoutingDataSource(Map.of(Bulkhead.BULK, pool(bulkConnection))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Within a request deadline, the connection wait is capped by the remaining budget")
+    void deadline_capsConnectionWait() throws SQLException {
+        HikariDataSource oltp = pool(oltpConnection);
+        HikariPool started = mock(HikariPool.class);
+        Connection withinBudget = mock(Connection.class);
+        given(oltp.getConnectionTimeout()).willReturn(30_000L);
+        given(oltp.getHikariPoolMXBean()).willReturn(started);
+        given(started.getConnection(longThat(ms -> ms > 0 && ms <= 500))).willReturn(withinBudget);
+        var routing = new BulkheadRoutingDataSource(Map.of(Bulkhead.OLTP, oltp));
+
+        Deadline previous = Deadline.enter(Deadline.after(Duration.ofMillis(500)));
+        try {
+            assertThat(routing.getConnection()).isSameAs(withinBudget);
+        } finally {
+            Deadline.restore(previous);
+        }
+
+        previous = Deadline.enter(Deadline.after(Duration.ZERO));
+        try {
+            assertThatThrownBy(routing::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        } finally {
+            Deadline.restore(previous);
+        }
+        assertThat(routing.getConnection()).isSameAs(oltpConnection);
+    }
+
+    private static HikariDataSource pool(Connection connection) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        given(pool.getConnection()).willReturn(connection);
+        return pool;
+    }
+}
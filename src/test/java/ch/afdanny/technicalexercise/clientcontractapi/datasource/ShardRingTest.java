@@ -0,0 +1,71 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ShardRing} (no Spring context required).
+ */
+class ShardRingTest {
+
+    private static final int KEYS = 30_000;
+
+    private static List<UUID> randomKeys() {
+        var random = new Random(42);
+        var keys = new ArrayList<UUID>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return keys;
+    }
+
+    @Test
+    @DisplayName("Keys spread evenly over the shards")
+    void keys_spreadEvenly() {
+        var ring = new ShardRing(List.of("a", "b", "c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        randomKeys().forEach(k -> counts.merge(ring.shardOf(k), 1, Integer::sum));
+
+        assertThat(counts).containsOnlyKeys("a", "b", "c");
+        counts.values().forEach(n -> assertThat(n / (double) KEYS).isBetween(0.25, 0.42));
+    }
+
+    @Test
+    @DisplayName("Adding a shard only moves keys to that shard, about 1/N of them")
+    void addingAShard_movesOnlyItsShare() {
+        var before = new ShardRing(List.of("a", "b", "c"), 128);
+        var after = new ShardRing(List.of("a", "b", "c", "d"), 128);
+
+        int moved = 0;
+        for (UUID key : randomKeys()) {
+            String owner = after.shardOf(key);
+            if (!owner.equals(before.shardOf(key))) {
+                assertThat(owner).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(moved / (double) KEYS).isBetween(0.18, 0.32);
+    }
+
+    @Test
+    @DisplayName("Placement depends on the shard names only, not on their order")
+    void placement_ignoresConfigurationOrder() {
+        var ring = new ShardRing(List.of("a", "b", "c"), 128);
+        var reordered = new ShardRing(List.of("c", "a", "b"), 128);
+
+        randomKeys().forEach(k -> assertThat(reordered.shardOf(k)).isEqualTo(ring.shardOf(k)));
+    }
+
+    @Test
+    @DisplayName("A single shard owns every key")
+    void singleShard_ownsEverything() {
+        var ring = new ShardRing(List.of("only"), 1);
+
+        assertThat(ring.shardOf(UUID.randomUUID())).isEqualTo("only");
+    }
+}
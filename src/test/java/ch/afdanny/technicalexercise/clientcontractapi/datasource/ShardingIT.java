@@ -0,0 +1,220 @@
+package ch.afdanny.technicalexercise.clientcontractapi.datasource;
+
+import ch.afdanny.technicalexercise.clientcontractapi.TestDatabases;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.ConflictException;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Client;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration test for client sharding against three PostgreSQL databases ({@link TestDatabases}):
+ * "a" and "b" serving, "c" joining (configured, not yet in the ring). The schema comes from the Liquibase changelog.
+ *
+ * Validates:
+ *  - each client, and its contracts, is stored on the shard its id maps to, and only there
+ *  - reads and writes by client id route to that shard, contract reads and updates by id included
+ *  - email and company identifier are unique across shards
+ *  - search and expiring contracts gather the results of every shard
+ *  - the split moves the clients the ring with "c" assigns to it: copy, catch-up, cleanup
+ *  - the catch-up carries over updates and soft deletes made before the switch, not over newer rows
+ */
+@SpringBootTest(
+        properties = {
+                "app.sharding.enabled=true",
+                "app.sharding.joining=c",
+                "spring.liquibase.enabled=true",
+                "spring.liquibase.contexts=test",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.datasource.hikari.minimum-idle=0",
+                "app.datasource.bulkheads.oltp.maximum-pool-size=3",
+                "app.contract-expiry.enabled=false"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+class ShardingIT {
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws SQLException {
+        for (String shard : List.of("a", "b", "c")) {
+            String url = TestDatabases.create("shard_it_" + shard);
+            registry.add("app.sharding.shards." + shard + ".url", () -> url);
+        }
+        TestDatabases.credentials(registry);
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ShardingProperties sharding;
+
+    @Autowired
+    private Shards shards;
+
+    @Test
+    void clients_areStoredAndServedByTheirShard() {
+        // given / when
+        List<UUID> ids = createPeople("Routing", 30);
+
+        // then
+        for (UUID id : ids) {
+            String owner = shards.shardOf(id);
+            assertThat(shardsHolding("client", id)).containsExactly(owner);
+            assertThat(clientService.readActive(id).getId()).isEqualTo(id);
+
+            Contract contract = contractService.create(id, LocalDate.now(), null, new BigDecimal("10.00"));
+            assertThat(shardsHolding("contract", contract.getId())).containsExactly(owner);
+            assertThat(contractService.listActiveByClient(id)).extracting(Contract::getId).containsExactly(contract.getId());
+            assertThat(contractService.sumActiveCost(id)).isEqualByComparingTo("10.00");
+            assertThat(contractService.getById(id, contract.getId()).getId()).isEqualTo(contract.getId());
+            assertThat(contractService.update(id, contract.getId(), new BigDecimal("2.00")).getCostAmount())
+                    .isEqualByComparingTo("2.00");
+            assertThat(contractService.update(contract.getId(), new BigDecimal("3.00")).getCostAmount())
+                    .as("addressed by contract id alone").isEqualByComparingTo("3.00");
+        }
+        assertThat(ids).extracting(shards::shardOf).contains("a", "b").doesNotContain("c");
+
+        // a contract is only found under its own client, whose shard is the only one asked
+        UUID first = ids.getFirst();
+        UUID contractId = contractService.listActiveByClient(first).getFirst().getId();
+        UUID elsewhere = ids.stream().filter(id -> !shards.shardOf(id).equals(shards.shardOf(first))).findFirst().orElseThrow();
+        assertThatThrownBy(() -> contractService.getById(elsewhere, contractId)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> contractService.update(elsewhere, contractId, BigDecimal.ONE)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void emailAndCompanyIdentifier_areUniqueAcrossShards() {
+        // given
+        List<UUID> ids = createPeople("Unique", 10);
+        UUID onA = ids.stream().filter(id -> shards.shardOf(id).equals("a")).findFirst().orElseThrow();
+        UUID onB = ids.stream().filter(id -> shards.shardOf(id).equals("b")).findFirst().orElseThrow();
+        String emailOnA = clientService.readActive(onA).getEmail();
+        clientService.createCompany("Unique Company", "unique-company@shard.ch", "+41790000000", "CHE-111.222.333");
+
+        // then: taken on another shard is taken
+        assertThatThrownBy(() -> clientService.updateContactInfo(onB, "Unique B", emailOnA, "+41790000000"))
+                .isInstanceOf(ConflictException.class);
+        for (int i = 0; i < 8; i++) { // new ids: on either shard
+            String email = "unique-copy" + i + "@shard.ch";
+            assertThatThrownBy(() -> clientService.createPerson("Unique copy", emailOnA, "+41790000000", LocalDate.of(1990, 1, 1)))
+                    .isInstanceOf(ConflictException.class);
+            assertThatThrownBy(() -> clientService.createCompany("Unique copy", email, "+41790000000", "CHE-111.222.333"))
+                    .isInstanceOf(ConflictException.class);
+        }
+        assertThat(clientService.updateContactInfo(onA, "Unique A", emailOnA, "+41790000000").getName())
+                .as("its own email").isEqualTo("Unique A");
+    }
+
+    @Test
+    void crossShardReads_gatherEveryShard() {
+        // given: one contract per client, ending on distinct days
+        List<UUID> ids = createPeople("Gathered", 12);
+        List<Contract> contracts = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            contracts.add(contractService.create(ids.get(i), LocalDate.now(), LocalDate.now().plusDays(i + 1), BigDecimal.ONE));
+        }
+
+        // when: search by pages of 5
+        List<UUID> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = clientService.search("gathered", cursor, 5);
+            page.clients().forEach(c -> found.add(c.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(found).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(contractService.listExpiringWithin(5, 3)).extracting(Contract::getId)
+                .containsExactly(contracts.get(0).getId(), contracts.get(1).getId(), contracts.get(2).getId());
+    }
+
+    @Test
+    void split_movesTheJoiningShardsClients() {
+        // given
+        List<UUID> ids = createPeople("Split", 40);
+        ids.forEach(id -> contractService.create(id, LocalDate.now(), null, BigDecimal.ONE));
+        ShardRing target = sharding.targetRing();
+        List<UUID> moving = ids.stream().filter(id -> target.shardOf(id).equals("c")).toList();
+        assertThat(moving).hasSizeGreaterThanOrEqualTo(3);
+        var splitter = new ShardSplitter(dataSource, target, 7);
+
+        // when: copied while the old ring serves, then a contract created, a client updated and one deleted
+        // before the switch, and a client updated by the new shard after it
+        splitter.run(ShardSplitter.Phase.COPY);
+        UUID late = moving.getFirst();
+        Contract lateContract = contractService.create(late, LocalDate.now(), null, BigDecimal.TEN);
+        clientService.updateContactInfo(late, "Split late", "split-late@shard.ch", "+41790000001");
+        UUID deleted = moving.get(1);
+        clientService.deleteClient(deleted);
+        UUID switched = moving.get(2);
+        clientService.updateContactInfo(switched, "Split stale", "split-stale@shard.ch", "+41790000001");
+        jdbc("c").update("UPDATE client SET name = 'Split switched' WHERE id = ?", switched);
+
+        // then: nothing is removed before the catch-up
+        assertThatThrownBy(() -> splitter.run(ShardSplitter.Phase.CLEANUP)).isInstanceOf(IllegalStateException.class);
+        splitter.run(ShardSplitter.Phase.CATCH_UP);
+        splitter.run(ShardSplitter.Phase.CLEANUP);
+
+        for (UUID id : ids) {
+            assertThat(shardsHolding("client", id)).containsExactly(target.shardOf(id));
+        }
+        assertThat(shardsHolding("contract", lateContract.getId())).containsExactly("c");
+        assertThat(jdbc("c").queryForObject("SELECT count(*) FROM contract WHERE client_id = ?", Integer.class, late)).isEqualTo(2);
+        assertThat(jdbc("c").queryForObject("SELECT type FROM client WHERE id = ?", String.class, late)).isEqualTo("PERSON");
+        assertThat(jdbc("c").queryForObject("SELECT count(*) FROM person_client WHERE id = ?", Integer.class, late)).isOne();
+        assertThat(jdbc("c").queryForObject("SELECT name FROM client WHERE id = ?", String.class, late)).isEqualTo("Split late");
+        assertThat(jdbc("c").queryForObject("SELECT deleted_at IS NOT NULL FROM client WHERE id = ?", Boolean.class, deleted)).isTrue();
+        assertThat(jdbc("c").queryForObject("SELECT end_date FROM contract WHERE client_id = ?", LocalDate.class, deleted))
+                .isEqualTo(LocalDate.now());
+        assertThat(jdbc("c").queryForObject("SELECT name FROM client WHERE id = ?", String.class, switched))
+                .as("written by the new shard after the switch").isEqualTo("Split switched");
+    }
+
+    private List<UUID> createPeople(String name, int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Client client = clientService.createPerson(name + " " + i, name.toLowerCase() + i + "@shard.ch", "+41790000000",
+                    LocalDate.of(1990, 1, 1));
+            ids.add(client.getId());
+        }
+        return ids;
+    }
+
+    private List<String> shardsHolding(String table, UUID id) {
+        return dataSource.shards().keySet().stream()
+                .filter(shard -> jdbc(shard).queryForObject("SELECT count(*) FROM " + table + " WHERE id = ?", Integer.class, id) > 0)
+                .toList();
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        Map<String, BulkheadRoutingDataSource> databases = dataSource.shards();
+        return new JdbcTemplate(databases.get(shard));
+    }
+}
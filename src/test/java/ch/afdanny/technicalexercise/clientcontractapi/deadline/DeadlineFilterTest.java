@@ -0,0 +1,61 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link DeadlineFilter} (mock servlet API, no Spring context required).
+ */
+class DeadlineFilterTest {
+
+    private final DeadlineFilter filter = new DeadlineFilter(new DeadlineProperties(true, "X-Request-Timeout",
+            Duration.ofSeconds(5), Duration.ofSeconds(30),
+            Map.of("/v1/clients/*/contracts/active/sum", Duration.ofSeconds(1))));
+
+    @Test
+    @DisplayName("Budget : en-tête, sinon défaut de l'endpoint, sinon défaut global ; jamais au-delà du maximum")
+    void budget_headerThenEndpointThenDefault_cappedByMax() {
+        assertThat(filter.budget(request("/v1/clients/42", "250"))).isEqualTo(Duration.ofMillis(250));
+        assertThat(filter.budget(request("/v1/clients/42", "600000"))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(filter.budget(request("/v1/clients/42/contracts/active/sum", null))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(filter.budget(request("/v1/clients/42", null))).isEqualTo(Duration.ofSeconds(5));
+        assertThat(filter.budget(request("/v1/clients/42", "soon"))).isEqualTo(Duration.ofSeconds(5));
+        assertThat(filter.budget(request("/v1/clients/42", "-1"))).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("The deadline is bound for the request only")
+    void deadline_isBoundDuringTheRequestOnly() throws Exception {
+        var seen = new AtomicReference<Deadline>();
+        var chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                seen.set(Deadline.current());
+            }
+        };
+
+        filter.doFilter(request("/v1/clients/42", "250"), new MockHttpServletResponse(), chain);
+
+        assertThat(seen.get()).isNotNull();
+        assertThat(seen.get().remainingMillis()).isBetween(-1_000L, 250L);
+        assertThat(Deadline.current()).isNull();
+    }
+
+    private static MockHttpServletRequest request(String path, String timeout) {
+        var request = new MockHttpServletRequest("GET", "/api" + path);
+        request.setContextPath("/api");
+        if (timeout != null) {
+            request.addHeader("X-Request-Timeout", timeout);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package ch.afdanny.technicalexercise.clientcontractapi.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration test for request deadlines against PostgreSQL.
+ *
+ * Validates:
+ *  - a statement still running when the deadline expires is cancelled by the server, not awaited
+ *  - a transaction cannot start once the deadline has expired
+ *  - outside a request, transactions are unaffected
+ */
+@SpringBootTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+class DeadlineIT {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void slowStatement_isCancelledWhenTheDeadlineExpires() {
+        var tx = new TransactionTemplate(transactionManager);
+        Deadline previous = Deadline.enter(Deadline.after(Duration.ofMillis(300)));
+        long start = System.nanoTime();
+        try {
+            assertThatThrownBy(() -> tx.executeWithoutResult(s -> jdbcTemplate.execute("select pg_sleep(3)")))
+                    .isInstanceOf(QueryTimeoutException.class);
+        } finally {
+            Deadline.restore(previous);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+
+        // the connection went back to the pool without the session-level setting
+        String statementTimeout = tx.execute(s -> jdbcTemplate.queryForObject("show statement_timeout", String.class));
+        assertThat(statementTimeout).isEqualTo("0");
+    }
+
+    @Test
+    void expiredDeadline_preventsTheTransaction() {
+        var tx = new TransactionTemplate(transactionManager);
+        Deadline previous = Deadline.enter(Deadline.after(Duration.ZERO));
+        try {
+            assertThatThrownBy(() -> tx.executeWithoutResult(s -> jdbcTemplate.execute("select 1")))
+                    .isInstanceOf(TransactionTimedOutException.class);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ch.afdanny.technicalexercise.clientcontractapi.expiry;
+
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.JobWatermark;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.JobWatermarkRepository;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.PersonClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the contract day rollover.
+ *
+ * Validates:
+ *  - each day after the watermark is processed once, up to today, then nothing more
+ *  - exactly the contracts ending on a processed day are published, after commit
+ *  - the first run starts from today (no replay of past end dates)
+ */
+@SpringBootTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+@RecordApplicationEvents
+class ContractExpiryServiceIT {
+
+    private static final LocalDate TODAY = LocalDate.of(2031, 3, 10);
+    private static final String EMAIL = "expiry@test.ch";
+
+    @Autowired
+    private ContractExpiryService service;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private PersonClientRepository personClientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void cleanup() {
+        // the context (and its database) is shared with the other integration tests
+        contractRepository.deleteAll();
+        personClientRepository.findAll().stream()
+                .filter(c -> c.getEmail().equals(EMAIL))
+                .forEach(personClientRepository::delete);
+    }
+
+    @Test
+    void expireNextDay_processesEachMissedDayOnce_andPublishesExactlyTheContractsEndingThatDay() {
+        var client = personClientRepository.save(PersonClient.builder()
+                .name("Expiry").email(EMAIL).phone("+41790000000")
+                .birthdate(LocalDate.of(1990, 1, 1))
+                .build());
+        var beforeWatermark = newContract(client, TODAY.minusDays(3), "1.00");
+        var missedDay = newContract(client, TODAY.minusDays(2), "10.00");
+        var today = newContract(client, TODAY, "20.00");
+        var tomorrow = newContract(client, TODAY.plusDays(1), "30.00");
+        var openEnded = newContract(client, null, "40.00");
+        watermarkRepository.save(new JobWatermark(ContractExpiryService.WATERMARK, TODAY.minusDays(3)));
+        double expiredBefore = meterRegistry.get("contract.expired").counter().count();
+
+        assertThat(service.expireNextDay(TODAY)).isEqualTo(TODAY.minusDays(2));
+        assertThat(service.expireNextDay(TODAY)).isEqualTo(TODAY.minusDays(1));
+        assertThat(service.expireNextDay(TODAY)).isEqualTo(TODAY);
+        assertThat(service.expireNextDay(TODAY)).isNull();
+
+        assertThat(events.stream(ContractExpiredEvent.class))
+                .extracting(ContractExpiredEvent::contractId)
+                .containsExactly(missedDay.getId(), today.getId())
+                .doesNotContain(beforeWatermark.getId(), tomorrow.getId(), openEnded.getId());
+        assertThat(events.stream(ContractExpiredEvent.class))
+                .allSatisfy(e -> assertThat(e.clientId()).isEqualTo(client.getId()));
+        assertThat(watermarkRepository.findById(ContractExpiryService.WATERMARK).orElseThrow().getProcessedThrough())
+                .isEqualTo(TODAY);
+        assertThat(meterRegistry.get("contract.expired").counter().count() - expiredBefore).isEqualTo(2);
+
+        // next rollover: only tomorrow's contract
+        events.clear();
+        assertThat(service.expireNextDay(TODAY.plusDays(1))).isEqualTo(TODAY.plusDays(1));
+        assertThat(events.stream(ContractExpiredEvent.class))
+                .extracting(ContractExpiredEvent::contractId)
+                .containsExactly(tomorrow.getId());
+    }
+
+    @Test
+    void expireNextDay_firstRun_startsFromToday() {
+        watermarkRepository.deleteById(ContractExpiryService.WATERMARK);
+
+        assertThat(service.expireNextDay(TODAY)).isEqualTo(TODAY);
+        assertThat(service.expireNextDay(TODAY)).isNull();
+        assertThat(watermarkRepository.findById(ContractExpiryService.WATERMARK).orElseThrow().getProcessedThrough())
+                .isEqualTo(TODAY);
+    }
+
+    private Contract newContract(PersonClient client, LocalDate end, String cost) {
+        return contractRepository.save(Contract.builder()
+                .client(client)
+                .startDate(TODAY.minusYears(1))
+                .endDate(end)
+                .costAmount(new BigDecimal(cost))
+                .build());
+    }
+}
@@ -0,0 +1,176 @@
+package ch.afdanny.technicalexercise.clientcontractapi.groupcommit;
+
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostDistributions;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.enums.ClientType;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration test for group commit against PostgreSQL.
+ *
+ * Validates:
+ *  - concurrent contract creates are committed together, each caller getting its own contract
+ *  - a write that fails is reported to its caller only: the rest of its group is committed
+ *  - grouped creates and updates keep the service's results and errors, and update the cost distribution
+ *  - once stopped (after the web server), writes are committed inline instead of waiting for a writer
+ */
+@SpringBootTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false",
+                "app.group-commit.enabled=true",
+                "app.group-commit.max-delay=20ms",
+                // another context on the same database: its listener would evict the shared JCache regions
+                "app.cache-invalidation.enabled=false"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+class GroupCommitIT {
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CostDistributions costDistributions;
+
+    @Test
+    void concurrentCreates_areCommittedTogether() throws Exception {
+        UUID clientId = newClient();
+
+        List<Contract> created = concurrently(32, i -> () ->
+                contractService.create(clientId, LocalDate.now(), null, BigDecimal.valueOf(100 + i)));
+
+        assertThat(created).extracting(Contract::getId).doesNotHaveDuplicates();
+        assertThat(created).extracting(Contract::getCostAmount)
+                .containsExactlyInAnyOrderElementsOf(range(32, i -> new BigDecimal(100 + i)));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM contract WHERE client_id = ?", Long.class, clientId))
+                .isEqualTo(32);
+        assertThat(meterRegistry.get("groupcommit.group.size").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    void failingWrite_failsAlone() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS group_commit_it (v int)");
+        jdbcTemplate.execute("TRUNCATE group_commit_it");
+        List<Callable<Integer>> writes = List.of(
+                () -> groupCommitter.execute(() -> jdbcTemplate.update("INSERT INTO group_commit_it VALUES (1)")),
+                () -> groupCommitter.execute(() -> jdbcTemplate.queryForObject("SELECT 1 / 0", Integer.class)),
+                () -> groupCommitter.execute(() -> jdbcTemplate.update("INSERT INTO group_commit_it VALUES (2)")));
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (var pool = Executors.newFixedThreadPool(writes.size())) {
+            writes.forEach(w -> results.add(pool.submit(w)));
+        }
+
+        assertThat(results.get(0).get()).isEqualTo(1);
+        assertThatThrownBy(() -> results.get(1).get()).isInstanceOf(ExecutionException.class)
+                .cause().hasMessageContaining("division by zero");
+        assertThat(results.get(2).get()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT v FROM group_commit_it ORDER BY v", Integer.class))
+                .containsExactly(1, 2);
+    }
+
+    @Test
+    void stoppedCommitter_commitsWritesInline() {
+        assertThat(groupCommitter.getPhase()).as("stopped after the web server")
+                .isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+        UUID clientId = newClient();
+
+        groupCommitter.stop();
+        try {
+            Contract created = contractService.create(clientId, null, null, new BigDecimal("7.00"));
+            assertThat(contractService.getById(clientId, created.getId()).getCostAmount()).isEqualByComparingTo("7.00");
+        } finally {
+            groupCommitter.start();
+        }
+        assertThat(groupCommitter.isRunning()).isTrue();
+    }
+
+    @Test
+    void groupedCreateAndUpdate_keepTheServiceContract() {
+        UUID clientId = newClient();
+        long counted = costDistributions.snapshot().get(ClientType.PERSON).count();
+
+        Contract created = contractService.create(clientId, null, null, new BigDecimal("10.00"));
+        Contract updated = contractService.update(clientId, created.getId(), new BigDecimal("12.50"));
+
+        assertThat(created.getStartDate()).isEqualTo(LocalDate.now());
+        assertThat(contractMapper.toResponse(updated).clientId()).isEqualTo(clientId);
+        assertThat(updated.getCostAmount()).isEqualByComparingTo("12.50");
+        assertThat(contractService.getById(clientId, created.getId()).getCostAmount()).isEqualByComparingTo("12.50");
+        assertThat(costDistributions.snapshot().get(ClientType.PERSON).count()).isEqualTo(counted + 1);
+        assertThatThrownBy(() -> contractService.create(UUID.randomUUID(), null, null, BigDecimal.ONE))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> contractService.update(clientId, UUID.randomUUID(), BigDecimal.ONE))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> contractService.update(newClient(), created.getId(), BigDecimal.ONE))
+                .as("another client's contract").isInstanceOf(NotFoundException.class);
+    }
+
+    private UUID newClient() {
+        return clientService.createPerson("Group Commit", "gc-" + UUID.randomUUID() + "@test.ch", "+41790000000",
+                LocalDate.of(1990, 1, 1)).getId();
+    }
+
+    private static <T> List<T> concurrently(int n, IntFunction<Callable<T>> task) throws Exception {
+        List<Future<T>> futures = new ArrayList<>();
+        try (var pool = Executors.newFixedThreadPool(n)) {
+            for (int i = 0; i < n; i++) {
+                futures.add(pool.submit(task.apply(i)));
+            }
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static <T> List<T> range(int n, IntFunction<T> value) {
+        List<T> values = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            values.add(value.apply(i));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,173 @@
+package ch.afdanny.technicalexercise.clientcontractapi.idempotency;
+
+import ch.afdanny.technicalexercise.clientcontractapi.TestDatabases;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for Idempotency-Key handling over HTTP, against a PostgreSQL database of its own
+ * ({@link TestDatabases}) whose schema comes from the Liquibase changelog.
+ *
+ * Validates:
+ *  - a duplicate gets the first response back (same id, Location, status) without creating anything
+ *  - concurrent duplicates run the request once
+ *  - reusing a key for a different body is refused (422), other callers may use the same key
+ *  - without the header, every request runs; with it, a caller with no verified identity is refused (400)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.liquibase.enabled=true",
+                "spring.liquibase.contexts=test",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "app.contract-expiry.enabled=false",
+                "app.rate-limit.enabled=false",
+                "app.idempotency.trust-api-key-header=true"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+class IdempotencyIT {
+
+    private static final String DATABASE = "idempotency_it";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        TestDatabases.register(registry, DATABASE);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void duplicate_replaysTheFirstResponse_withoutCreatingAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String person = person("replay@example.com");
+
+        var first = post("/v1/clients/person", person, key, "caller-1");
+        var second = post("/v1/clients/person", person, key, "caller-1");
+
+        assertThat(first.statusCode()).isEqualTo(201);
+        assertThat(second.statusCode()).isEqualTo(201);
+        assertThat(second.body()).isEqualTo(first.body());
+        assertThat(second.headers().firstValue("Location")).isEqualTo(first.headers().firstValue("Location"));
+        assertThat(second.headers().firstValue(IdempotencyFilter.REPLAYED_HEADER)).contains("true");
+        assertThat(first.headers().firstValue(IdempotencyFilter.REPLAYED_HEADER)).isEmpty();
+        assertThat(count("SELECT count(*) FROM client WHERE email = 'replay@example.com'")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicates_runTheRequestOnce() throws Exception {
+        String clientId = id(post("/v1/clients/person", person("concurrent@example.com"), null, null).body());
+        String contract = "{\"clientId\":\"" + clientId + "\",\"costAmount\":12.50}";
+        String key = UUID.randomUUID().toString();
+
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        try (var pool = Executors.newFixedThreadPool(8)) {
+            List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> post("/v1/contracts", contract, key, "caller-1")));
+            }
+            for (var future : futures) {
+                responses.add(future.get());
+            }
+        }
+
+        assertThat(responses).allSatisfy(r -> {
+            assertThat(r.statusCode()).isEqualTo(201);
+            assertThat(r.body()).isEqualTo(responses.getFirst().body());
+        });
+        assertThat(count("SELECT count(*) FROM contract WHERE client_id = '" + clientId + "'")).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedForAnotherBody_isRefused_butKeysArePerCaller() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        assertThat(post("/v1/clients/person", person("first@example.com"), key, "caller-1").statusCode()).isEqualTo(201);
+        var reused = post("/v1/clients/person", person("other@example.com"), key, "caller-1");
+        var otherCaller = post("/v1/clients/person", person("other@example.com"), key, "caller-2");
+
+        assertThat(reused.statusCode()).isEqualTo(422);
+        assertThat(otherCaller.statusCode()).isEqualTo(201);
+        assertThat(count("SELECT count(*) FROM client WHERE email = 'other@example.com'")).isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.requests").tag("outcome", "mismatch").counter().count()).isPositive();
+    }
+
+    @Test
+    void withoutKey_everyRequestRuns() throws Exception {
+        String clientId = id(post("/v1/clients/person", person("nokey@example.com"), null, null).body());
+        String contract = "{\"clientId\":\"" + clientId + "\",\"costAmount\":12.50}";
+
+        var first = post("/v1/contracts", contract, null, null);
+        var second = post("/v1/contracts", contract, null, null);
+
+        assertThat(id(second.body())).isNotEqualTo(id(first.body()));
+        assertThat(count("SELECT count(*) FROM contract WHERE client_id = '" + clientId + "'")).isEqualTo(2);
+    }
+
+    @Test
+    void keyWithoutCallerIdentity_isRefused() throws Exception {
+        var refused = post("/v1/clients/person", person("anonymous@example.com"), UUID.randomUUID().toString(), null);
+
+        assertThat(refused.statusCode()).isEqualTo(400);
+        assertThat(refused.body()).contains("requires an authenticated caller");
+        assertThat(count("SELECT count(*) FROM client WHERE email = 'anonymous@example.com'")).isZero();
+    }
+
+    private static String person(String email) {
+        return "{\"name\":\"Jane Doe\",\"email\":\"" + email + "\",\"phone\":\"+41791234567\",\"birthdate\":\"1990-01-01\"}";
+    }
+
+    private HttpResponse<String> post(String path, String json, String key, String apiKey) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (key != null) {
+            request.header("Idempotency-Key", key);
+        }
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String id(String body) {
+        var matcher = ID.matcher(body);
+        assertThat(matcher.find()).as("id in %s", body).isTrue();
+        return matcher.group(1);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,124 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import ch.afdanny.technicalexercise.clientcontractapi.controller.ClientController;
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ActiveContractsSumResponse;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.GlobalExceptionHandler;
+import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ClientMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ClientMapperImpl;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapperImpl;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ClientService;
+import ch.afdanny.technicalexercise.clientcontractapi.service.ContractService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web MVC slice with {@code app.json.fast-writers.enabled=true}: the fast converter is registered first
+ * and the HTTP responses are identical to what Jackson writes for the same DTOs.
+ */
+@WebMvcTest(controllers = ClientController.class, properties = "app.json.fast-writers.enabled=true")
+@AutoConfigureMockMvc(addFilters = false)
+@Import({ ClientMapperImpl.class, ContractMapperImpl.class, GlobalExceptionHandler.class })
+class FastJsonHttpMessageConverterTest {
+
+    private static final UUID CLIENT_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired RequestMappingHandlerAdapter handlerAdapter;
+    @Autowired ClientMapper clientMapper;
+    @Autowired ContractMapper contractMapper;
+
+    @MockitoBean ClientService clientService;
+    @MockitoBean ContractService contractService;
+
+    private final PersonClient person = PersonClient.builder()
+            .id(CLIENT_ID)
+            .name("Zoë \"Z\" Müller")
+            .email("zoe@test.ch")
+            .phone("+41790000000")
+            .birthdate(LocalDate.of(1990, 1, 1))
+            .build();
+
+    @Test
+    @DisplayName("Converter is registered ahead of the Jackson converter when enabled")
+    void converter_isRegisteredBeforeJackson() {
+        var converters = handlerAdapter.getMessageConverters().stream().map(Object::getClass).toList();
+
+        assertThat(converters.indexOf(FastJsonHttpMessageConverter.class))
+                .isNotNegative()
+                .isLessThan(converters.indexOf(MappingJackson2HttpMessageConverter.class));
+    }
+
+    @Test
+    @DisplayName("GET client: same bytes as Jackson")
+    void getClient_matchesJackson() throws Exception {
+        given(clientService.readActive(CLIENT_ID)).willReturn(person);
+
+        mvc.perform(get("/v1/clients/{id}", CLIENT_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(content().string(objectMapper.writeValueAsString(clientMapper.toPersonResponse(person))));
+    }
+
+    @Test
+    @DisplayName("GET active contracts: same bytes as Jackson")
+    void getActiveContracts_matchesJackson() throws Exception {
+        var contracts = List.of(
+                Contract.builder().id(UUID.randomUUID()).client(person).startDate(LocalDate.of(2024, 1, 1))
+                        .costAmount(new BigDecimal("100.50")).build(),
+                Contract.builder().id(UUID.randomUUID()).client(person).startDate(LocalDate.of(2024, 2, 1))
+                        .endDate(LocalDate.of(2099, 1, 1)).costAmount(new BigDecimal("1E+3")).build());
+        given(clientService.readActive(CLIENT_ID)).willReturn(person);
+        given(contractService.listActiveByClient(CLIENT_ID)).willReturn(contracts);
+
+        mvc.perform(get("/v1/clients/{id}/contracts/active", CLIENT_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(
+                        contracts.stream().map(contractMapper::toResponse).toList())));
+    }
+
+    @Test
+    @DisplayName("GET active contracts sum: same bytes as Jackson")
+    void getActiveContractsSum_matchesJackson() throws Exception {
+        given(clientService.readActive(CLIENT_ID)).willReturn(person);
+        given(contractService.sumActiveCost(CLIENT_ID)).willReturn(new BigDecimal("350.75"));
+
+        mvc.perform(get("/v1/clients/{id}/contracts/active/sum", CLIENT_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(
+                        new ActiveContractsSumResponse(CLIENT_ID, new BigDecimal("350.75")))));
+    }
+
+    @Test
+    @DisplayName("Error bodies are still rendered by Jackson")
+    void errors_stillUseJackson() throws Exception {
+        given(clientService.readActive(CLIENT_ID)).willThrow(new NotFoundException("Client not found"));
+
+        mvc.perform(get("/v1/clients/{id}", CLIENT_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Client not found"));
+    }
+}
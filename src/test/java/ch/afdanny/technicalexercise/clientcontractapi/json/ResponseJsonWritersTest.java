@@ -0,0 +1,143 @@
+package ch.afdanny.technicalexercise.clientcontractapi.json;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Byte-for-byte equivalence of {@link ResponseJsonWriters} with the Spring Boot configured ObjectMapper.
+ * Uses seeded random DTOs (nulls, escaping, non-ASCII, BigDecimal scales and exponents, extreme dates).
+ * Compared as UTF-8 bytes, the way both paths write HTTP responses (the byte generator escapes surrogate pairs).
+ */
+@JsonTest
+class ResponseJsonWritersTest {
+
+    private static final String[] TEXTS = {
+            "Alice", "", "Zoë Müller", "quote \" backslash \\ slash /", "tab\tnew\nline", "emoji 😀",
+            "control \u0001\u001f", "<script>&</script>", "+41791234567", "AAA-123"
+    };
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("0"), new BigDecimal("0.00"), new BigDecimal("100.50"), new BigDecimal("1E+3"),
+            new BigDecimal("123456789012345678901234567890.12"), new BigDecimal("-0.01"), new BigDecimal("1E-10")
+    };
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("ContractResponse and contract lists are written exactly like Jackson")
+    void contracts_matchJackson() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            var contract = randomContract();
+            assertThat(fast(g -> ResponseJsonWriters.writeContract(g, contract)))
+                    .isEqualTo(objectMapper.writeValueAsBytes(contract));
+        }
+
+        List<ContractResponse> list = new ArrayList<>();
+        for (int i = 0; i < 50; i++) list.add(randomContract());
+        assertThat(fast(g -> ResponseJsonWriters.writeContracts(g, list)))
+                .isEqualTo(objectMapper.writeValueAsBytes(list));
+        assertThat(fast(g -> ResponseJsonWriters.writeContracts(g, List.of())))
+                .isEqualTo(objectMapper.writeValueAsBytes(List.of()));
+    }
+
+    @Test
+    @DisplayName("ActiveContractsSumResponse is written exactly like Jackson")
+    void activeContractsSum_matchesJackson() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            var sum = new ActiveContractsSumResponse(maybe(UUID.randomUUID()), maybe(any(AMOUNTS)));
+            assertThat(fast(g -> ResponseJsonWriters.writeActiveContractsSum(g, sum)))
+                    .isEqualTo(objectMapper.writeValueAsBytes(sum));
+        }
+    }
+
+    @Test
+    @DisplayName("Person and company client responses are written exactly like Jackson")
+    void clients_matchJackson() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            ClientResponse client = random.nextBoolean() ? randomPerson() : randomCompany();
+            assertThat(fast(g -> ResponseJsonWriters.writeClient(g, client)))
+                    .isEqualTo(objectMapper.writeValueAsBytes(client));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    @FunctionalInterface
+    interface Writer {
+        void write(JsonGenerator g) throws IOException;
+    }
+
+    private byte[] fast(Writer writer) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            writer.write(g);
+        }
+        return out.toByteArray();
+    }
+
+    private ContractResponse randomContract() {
+        return new ContractResponse(
+                maybe(UUID.randomUUID()), maybe(UUID.randomUUID()),
+                maybe(randomDate()), maybe(randomDate()), maybe(any(AMOUNTS)));
+    }
+
+    private PersonClientResponse randomPerson() {
+        var r = new PersonClientResponse();
+        fill(r, "person");
+        r.birthdate = maybe(randomDate());
+        return r;
+    }
+
+    private CompanyClientResponse randomCompany() {
+        var r = new CompanyClientResponse();
+        fill(r, "company");
+        r.companyIdentifier = maybe(any(TEXTS));
+        return r;
+    }
+
+    private void fill(ClientResponse r, String type) {
+        r.id = maybe(UUID.randomUUID());
+        r.name = maybe(any(TEXTS));
+        r.email = maybe(any(TEXTS));
+        r.phone = maybe(any(TEXTS));
+        r.type = type;
+    }
+
+    private LocalDate randomDate() {
+        return switch (random.nextInt(12)) {
+            case 0 -> LocalDate.of(1, 1, 1);
+            case 1 -> LocalDate.of(9999, 12, 31);
+            case 2 -> LocalDate.of(-42, 6, 15);
+            case 3 -> LocalDate.of(12345, 1, 9);
+            default -> LocalDate.of(1900, 1, 1).plusDays(random.nextInt(80_000));
+        };
+    }
+
+    private <T> T any(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private <T> T maybe(T value) {
+        return random.nextInt(8) == 0 ? null : value;
+    }
+}
@@ -0,0 +1,194 @@
+package ch.afdanny.technicalexercise.clientcontractapi.load;
+
+import ch.afdanny.technicalexercise.clientcontractapi.TestcontainersConfiguration;
+import ch.afdanny.technicalexercise.clientcontractapi.load.OpenModelDriver.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: boots the application on a random port against a PostgreSQL container
+ * (schema from Liquibase) and drives a mixed traffic at a fixed arrival rate over real HTTP.
+ *
+ * Rate, duration, traffic mix and the per-endpoint latency budgets (p50 / p99 / p99.9) are read
+ * from {@code load-test.properties}; the test fails when a budget or the error ratio is exceeded.
+ *
+ * Excluded from the default build, run with: {@code ./mvnw test -Pload-test}
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.profiles.active=load",
+                "app.rate-limit.enabled=false", // one caller at the full arrival rate: measures latency, not throttling
+                "logging.level.ch.afdanny.technicalexercise.clientcontractapi=INFO"
+        }
+)
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private Properties config;
+    private final List<UUID> clients = new ArrayList<>();
+    private final List<String> contractPaths = new ArrayList<>(); // /v1/clients/{clientId}/contracts/{id}
+    // clients created during the run: the only ones deleted, so reads never hit a deleted client
+    private final Queue<UUID> deletable = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    void seed() throws Exception {
+        config = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/load-test.properties")) {
+            config.load(in);
+        }
+        int seedClients = intProp("load.seed-clients");
+        int contractsPerClient = intProp("load.seed-contracts-per-client");
+        for (int i = 0; i < seedClients; i++) {
+            UUID client = createPerson().orElseThrow();
+            clients.add(client);
+            for (int j = 0; j < contractsPerClient; j++) {
+                contractPaths.add("/v1/clients/" + client + "/contracts/" + createContract(client).orElseThrow());
+            }
+        }
+    }
+
+    @Test
+    void mixedTraffic_shouldStayWithinLatencyBudgets() throws Exception {
+        var driver = new OpenModelDriver(Double.parseDouble(config.getProperty("load.rate-per-second")));
+        Supplier<Operation> traffic = trafficMix();
+
+        driver.run(traffic, Duration.ofSeconds(intProp("load.warmup-seconds")));
+        var report = driver.run(traffic, Duration.ofSeconds(intProp("load.duration-seconds")));
+        log.info("Load test report\n{}", report.format());
+
+        double maxErrorRatio = Double.parseDouble(config.getProperty("load.max-error-ratio"));
+        var softly = new SoftAssertions();
+        report.endpoints().forEach((endpoint, stats) -> {
+            softly.assertThat((double) stats.errors.sum() / stats.count())
+                    .as("%s error ratio", endpoint)
+                    .isLessThanOrEqualTo(maxErrorRatio);
+
+            String budget = config.getProperty("budget." + endpoint);
+            if (budget == null) return;
+            String[] millis = budget.split("/");
+            softly.assertThat(stats.percentileMillis(50)).as("%s p50 (ms)", endpoint)
+                    .isLessThanOrEqualTo(Double.parseDouble(millis[0]));
+            softly.assertThat(stats.percentileMillis(99)).as("%s p99 (ms)", endpoint)
+                    .isLessThanOrEqualTo(Double.parseDouble(millis[1]));
+            softly.assertThat(stats.percentileMillis(99.9)).as("%s p99.9 (ms)", endpoint)
+                    .isLessThanOrEqualTo(Double.parseDouble(millis[2]));
+        });
+        assertThat(report.endpoints()).isNotEmpty();
+        softly.assertAll();
+    }
+
+    // --------------------------------------------------------------------
+    // Traffic mix
+    // --------------------------------------------------------------------
+
+    private Supplier<Operation> trafficMix() {
+        Map<String, OpenModelDriver.Call> calls = new LinkedHashMap<>();
+        calls.put("client.create", () -> {
+            var response = createPersonResponse();
+            idOf(response).ifPresent(deletable::add);
+            return response.statusCode();
+        });
+        calls.put("client.update", () -> send("PUT", "/v1/clients/" + any(clients), """
+                {"name":"Load Updated","email":"%s@load.test","phone":"+41797654321"}""".formatted(UUID.randomUUID())).statusCode());
+        calls.put("client.delete", () -> {
+            UUID id = deletable.poll();
+            return id == null ? null : send("DELETE", "/v1/clients/" + id, null).statusCode();
+        });
+        calls.put("contract.create", () -> createContractResponse(any(clients)).statusCode());
+        calls.put("contract.update", () -> send("PUT", any(contractPaths), """
+                {"costAmount":%d.50}""".formatted(ThreadLocalRandom.current().nextInt(10, 10_000))).statusCode());
+        calls.put("contracts.list", () -> send("GET", "/v1/clients/" + any(clients) + "/contracts/active", null).statusCode());
+        calls.put("contracts.sum", () -> send("GET", "/v1/clients/" + any(clients) + "/contracts/active/sum", null).statusCode());
+
+        List<Operation> weighted = new ArrayList<>();
+        calls.forEach((endpoint, call) -> {
+            int weight = intProp("mix." + endpoint);
+            for (int i = 0; i < weight; i++) weighted.add(new Operation(endpoint, call));
+        });
+        return () -> any(weighted);
+    }
+
+    private static <T> T any(List<T> list) {
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
+    }
+
+    // --------------------------------------------------------------------
+    // HTTP helpers
+    // --------------------------------------------------------------------
+
+    private Optional<UUID> createPerson() throws Exception {
+        return idOf(createPersonResponse());
+    }
+
+    private HttpResponse<String> createPersonResponse() throws Exception {
+        return send("POST", "/v1/clients/person", """
+                {"name":"Load Client","email":"%s@load.test","phone":"+41791234567","birthdate":"1990-01-01"}"""
+                .formatted(UUID.randomUUID()));
+    }
+
+    private Optional<UUID> createContract(UUID client) throws Exception {
+        return idOf(createContractResponse(client));
+    }
+
+    private HttpResponse<String> createContractResponse(UUID client) throws Exception {
+        return send("POST", "/v1/contracts", """
+                {"clientId":"%s","costAmount":%d.25}""".formatted(client, ThreadLocalRandom.current().nextInt(10, 10_000)));
+    }
+
+    private Optional<UUID> idOf(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 201) return Optional.empty();
+        return Optional.of(UUID.fromString(objectMapper.readTree(response.body()).get("id").asText()));
+    }
+
+    private HttpResponse<String> send(String method, String path, String json) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, json == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int intProp(String key) {
+        return Integer.parseInt(config.getProperty(key).trim());
+    }
+}
@@ -0,0 +1,121 @@
+package ch.afdanny.technicalexercise.clientcontractapi.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: requests are started at a fixed arrival rate, whatever the
+ * response times are (each request runs on its own virtual thread).
+ * Latency is measured from the <em>intended</em> start time, so a stalled server shows up
+ * as queueing delay in the percentiles instead of lowering the offered load
+ * (no coordinated omission).
+ */
+final class OpenModelDriver {
+
+    /**
+     * One request of the traffic mix; the call returns the HTTP status, or null when it had
+     * nothing to send (e.g. no client left to delete) and must not be recorded.
+     */
+    record Operation(String endpoint, Call call) {}
+
+    @FunctionalInterface
+    interface Call {
+        Integer call() throws Exception;
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final double ratePerSecond;
+
+    OpenModelDriver(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Drives {@code traffic} for {@code duration} and waits for the in-flight requests.
+     */
+    Report run(Supplier<Operation> traffic, Duration duration) throws InterruptedException {
+        var report = new Report();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                long intendedStart = intended;
+                executor.execute(() -> execute(traffic.get(), intendedStart, report));
+            }
+        } // close() waits for the requests still in flight
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private static void execute(Operation op, long intendedStart, Report report) {
+        boolean ok;
+        try {
+            Integer status = op.call().call();
+            if (status == null) return;
+            ok = status >= 200 && status < 300;
+        } catch (Exception e) {
+            ok = false;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        report.stats(op.endpoint()).record(Math.min(micros, MAX_LATENCY_MICROS), ok);
+    }
+
+    static final class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean ok) {
+            latencyMicros.recordValue(micros);
+            if (!ok) errors.increment();
+        }
+
+        long count() { return latencyMicros.getTotalCount(); }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    static final class Report {
+        private final ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        EndpointStats stats(String endpoint) {
+            return stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+        }
+
+        Map<String, EndpointStats> endpoints() {
+            return new TreeMap<>(stats);
+        }
+
+        double throughput(EndpointStats s) {
+            return s.count() / (elapsedNanos / 1e9);
+        }
+
+        String format() {
+            var sb = new StringBuilder(String.format("%-18s %8s %8s %7s %9s %9s %9s%n",
+                    "endpoint", "count", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms"));
+            endpoints().forEach((name, s) -> sb.append(String.format("%-18s %8d %8.1f %7d %9.2f %9.2f %9.2f%n",
+                    name, s.count(), throughput(s), s.errors.sum(),
+                    s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9))));
+            return sb.toString();
+        }
+    }
+}
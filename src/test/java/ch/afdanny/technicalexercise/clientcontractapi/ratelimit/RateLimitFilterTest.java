@@ -0,0 +1,134 @@
+package ch.afdanny.technicalexercise.clientcontractapi.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RateLimitFilter} (mock servlet API, explicit clock, no Spring context required).
+ */
+class RateLimitFilterTest {
+
+    private static final String CLIENT = "11111111-1111-1111-1111-111111111111";
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = filter(true);
+
+    @Test
+    @DisplayName("A hot client id is throttled for every caller, with 429 and Retry-After")
+    void perClientLimit_appliesAcrossCallers() throws Exception {
+        assertThat(call("billing", "/v1/clients/" + CLIENT + "/contracts/active").getStatus()).isEqualTo(200);
+        assertThat(call("reporting", "/v1/clients/" + CLIENT + "/contracts/active/sum").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = call("crm", "/v1/clients/" + CLIENT);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429", "Rate limit exceeded (client)");
+        assertThat(rejected("client", "api-key")).isEqualTo(1);
+        assertThat(registry.find("ratelimit.rejected").tag("caller", "crm").counter()).as("no key in the tags").isNull();
+
+        // other clients are not affected, and the hot one recovers once a token is back
+        assertThat(call("crm", "/v1/clients/22222222-2222-2222-2222-222222222222").getStatus()).isEqualTo(200);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(call("crm", "/v1/clients/" + CLIENT).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("A caller is throttled on its own bucket, whatever the endpoint")
+    void perCallerLimit_appliesAcrossEndpoints() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(call("batch", "/v1/contracts/" + i).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = call("batch", "/v1/clients/person");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected("api-key", "api-key")).isEqualTo(1);
+        assertThat(call("other", "/v1/contracts/1").getStatus()).isEqualTo(200);
+        assertThat(call(null, "/v1/contracts/1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("An unverified API key is ignored: callers are keyed by principal, else by address")
+    void untrustedApiKey_fallsBackToPrincipalOrAddress() throws Exception {
+        var untrusting = filter(false);
+        for (int i = 0; i < 3; i++) {
+            assertThat(call(untrusting, "key-" + i, null, "/v1/contracts/1").getStatus()).isEqualTo(200);
+        }
+        assertThat(call(untrusting, "key-3", null, "/v1/contracts/1").getStatus()).as("same address").isEqualTo(429);
+        assertThat(rejected("api-key", "address")).isEqualTo(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(call(untrusting, "key-" + i, "alice", "/v1/contracts/1").getStatus()).isEqualTo(200);
+        }
+        assertThat(call(untrusting, null, "alice", "/v1/contracts/1").getStatus()).isEqualTo(429);
+        assertThat(rejected("api-key", "principal")).isEqualTo(1);
+        assertThat(call(untrusting, null, "bob", "/v1/contracts/1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Another spelling of a client id shares its bucket")
+    void perClientLimit_appliesToEverySpellingOfTheId() throws Exception {
+        String client = "aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee";
+        assertThat(call("billing", "/v1/clients/" + client).getStatus()).isEqualTo(200);
+        assertThat(call("billing", "/v1/clients/" + client.toUpperCase()).getStatus()).isEqualTo(200);
+
+        assertThat(call("crm", "/v1/clients/" + "AAAAAAAA-bbbb-CCCC-dddd-EEEEeeeeeeee").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Only /v1/clients/{uuid} paths have a client id, normalized")
+    void clientId_isExtractedFromClientPathsOnly() {
+        assertThat(RateLimitFilter.clientId("/v1/clients/" + CLIENT)).isEqualTo(CLIENT);
+        assertThat(RateLimitFilter.clientId("/v1/clients/AAAAAAAA-1111-1111-1111-111111111111/contracts"))
+                .isEqualTo("aaaaaaaa-1111-1111-1111-111111111111");
+        assertThat(RateLimitFilter.clientId("/v1/clients/" + "x".repeat(36))).isNull();
+        assertThat(RateLimitFilter.clientId("/v1/clients/" + CLIENT + "/contracts/active")).isEqualTo(CLIENT);
+        assertThat(RateLimitFilter.clientId("/v1/clients/person")).isNull();
+        assertThat(RateLimitFilter.clientId("/v1/contracts/" + CLIENT)).isNull();
+    }
+
+    private RateLimitFilter filter(boolean trustApiKeyHeader) {
+        return new RateLimitFilter(
+                new RateLimitProperties(true, "X-API-Key", trustApiKeyHeader,
+                        new RateLimitProperties.Limit(3, 1),
+                        new RateLimitProperties.Limit(2, 0.5),
+                        1_000, Duration.ofMinutes(10)),
+                new ObjectMapper().findAndRegisterModules(), registry, now::get);
+    }
+
+    private MockHttpServletResponse call(String apiKey, String path) throws Exception {
+        return call(filter, apiKey, null, path);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String apiKey, String user, String path)
+            throws Exception {
+        var request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        if (user != null) {
+            request.setUserPrincipal(() -> user);
+        }
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private double rejected(String limit, String caller) {
+        return registry.get("ratelimit.rejected").tag("limit", limit).tag("caller", caller).counter().count();
+    }
+}
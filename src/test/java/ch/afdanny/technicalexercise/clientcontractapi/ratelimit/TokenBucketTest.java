@@ -0,0 +1,84 @@
+package ch.afdanny.technicalexercise.clientcontractapi.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TokenBucket} (explicit clock, no Spring context required).
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("A full bucket accepts a burst of its capacity, then refills at its rate")
+    void burstThenRefill() {
+        var bucket = new TokenBucket(5, 10, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        long wait = bucket.tryAcquire(0);
+        assertThat(wait).isEqualTo(SECOND / 10);
+
+        assertThat(bucket.tryAcquire(wait - 1)).isPositive();
+        assertThat(bucket.tryAcquire(wait)).isZero();
+        assertThat(bucket.tryAcquire(wait)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Idle time refills the bucket, never above its capacity")
+    void idleRefill_isCappedAtCapacity() {
+        var bucket = new TokenBucket(3, 1, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        long later = 60 * SECOND;
+        int accepted = 0;
+        while (bucket.tryAcquire(later) == 0) {
+            accepted++;
+        }
+        assertThat(accepted).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never take more tokens than the bucket holds")
+    void concurrentAcquire_neverOverAdmits() throws Exception {
+        var bucket = new TokenBucket(100_000, 0.001, 0); // no refill during the test
+        int threads = 8;
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                admitted.add(pool.submit(() -> {
+                    start.await();
+                    int n = 0;
+                    for (int i = 0; i < 50_000; i++) {
+                        if (bucket.tryAcquire(0) == 0) n++;
+                    }
+                    return n;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> f : admitted) {
+                total += f.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(100_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package ch.afdanny.technicalexercise.clientcontractapi.repository;
 
+import ch.afdanny.technicalexercise.clientcontractapi.model.CompanyClient;
 import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.testcontainers.utility.TestcontainersConfiguration;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,6 +26,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  *  - findAllActive() only returns clients not soft-deleted
  *  - findActiveById() ignores deleted clients
  *  - markAsDeleted() correctly sets deletedAt field
+ *  - search() matches words, word prefixes and close spellings in name / email / company identifier,
+ *    skips deleted clients and pages by keyset
  */
 @DataJpaTest(
         properties = {
@@ -37,6 +45,31 @@ class ClientRepositoryTest {
     @Autowired
     private PersonClientRepository personClientRepository;
 
+    @Autowired
+    private CompanyClientRepository companyClientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void trigramExtension() {
+        // created by Liquibase (changelog-002) outside of tests
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+    }
+
+    private PersonClient person(String name, String email) {
+        return personClientRepository.save(PersonClient.builder()
+                .name(name)
+                .email(email)
+                .phone("+41790000000")
+                .birthdate(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    // PostgreSQL compares uuids as unsigned bytes, i.e. like their lower-case hex strings
+    private static final Comparator<UUID> PG_UUID_ORDER = Comparator.comparing(UUID::toString);
+
     @Test
     void findAllActive_returnsOnlyClientsNotSoftDeleted() {
         // given
@@ -87,6 +120,27 @@ class ClientRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void save_keepsAnAssignedId_andGeneratesOneOtherwise() {
+        // given: ids are chosen before inserting when clients are sharded
+        var assigned = UUID.randomUUID();
+
+        // when
+        var withId = personClientRepository.saveAndFlush(PersonClient.builder()
+                .id(assigned)
+                .name("Assigned")
+                .email("assigned@test.ch")
+                .phone("+41790000009")
+                .birthdate(LocalDate.of(1990, 1, 1))
+                .build());
+        var generated = person("Generated", "generated@test.ch");
+
+        // then
+        assertThat(withId.getId()).isEqualTo(assigned);
+        assertThat(clientRepository.findActiveById(assigned)).isPresent();
+        assertThat(generated.getId()).isNotNull().isNotEqualTo(assigned);
+    }
+
     @Test
     void markAsDeleted_updatesDeletedAtField() {
         // given
@@ -106,4 +160,84 @@ class ClientRepositoryTest {
         var reloaded = clientRepository.findById(client.getId()).orElseThrow();
         assertThat(reloaded.getDeletedAt()).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_matchesWordsFirst_thenCloseSpellings_onNameEmailAndCompanyIdentifier() {
+        // given
+        var prefixName = person("Martinez Laura", "laura@test.ch");
+        var typoName = person("Jean Martinet", "jean@test.ch");
+        var prefixEmail = person("Someone", "martinez.paul@test.ch");
+        var company = companyClientRepository.save(CompanyClient.builder()
+                .name("Acme SA")
+                .email("acme@test.ch")
+                .phone("+41210000000")
+                .companyIdentifier("MAR-123")
+                .build());
+        var unrelated = person("Zoe Keller", "zoe@test.ch");
+
+        // when
+        var byName = clientRepository.search("martinez", 100, 2f, FIRST_ID, 10);
+        var byWordPrefix = clientRepository.search("marti", 100, 2f, FIRST_ID, 10);
+        var byIdentifier = clientRepository.search("mar-123", 100, 2f, FIRST_ID, 10);
+
+        // then: exact words (score 1) come first, then the close spelling
+        assertThat(byName).extracting(ClientSearchHit::getId)
+                .startsWith(minId(prefixName.getId(), prefixEmail.getId()), maxId(prefixName.getId(), prefixEmail.getId()))
+                .contains(typoName.getId())
+                .doesNotContain(unrelated.getId(), company.getId());
+        assertThat(byName.get(0).getScore()).isEqualTo(1f);
+        assertThat(byName.get(2).getScore()).isLessThan(1f);
+        assertThat(byWordPrefix).extracting(ClientSearchHit::getId)
+                .contains(prefixName.getId(), typoName.getId(), prefixEmail.getId())
+                .doesNotContain(unrelated.getId());
+        assertThat(byIdentifier).extracting(ClientSearchHit::getId).containsExactly(company.getId());
+    }
+
+    @Test
+    void search_skipsDeletedClients_andPagesByKeyset() {
+        // given
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(person("Keyset " + i, "keyset" + i + "@test.ch").getId());
+        }
+        clientRepository.markAsDeleted(ids.remove(4), Instant.now());
+        ids.sort(PG_UUID_ORDER);
+
+        // when: pages of 2, each starting after the last hit of the previous one
+        var page1 = clientRepository.search("keyset", 100, 2f, FIRST_ID, 2);
+        var last = page1.get(1);
+        var page2 = clientRepository.search("keyset", 100, last.getScore(), last.getId(), 2);
+        last = page2.get(1);
+        var page3 = clientRepository.search("keyset", 100, last.getScore(), last.getId(), 2);
+
+        // then
+        assertThat(page1).extracting(ClientSearchHit::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(page2).extracting(ClientSearchHit::getId).containsExactly(ids.get(2), ids.get(3));
+        assertThat(page3).isEmpty();
+        assertThat(page1).extracting(ClientSearchHit::isTruncated).containsOnly(false);
+    }
+
+    @Test
+    void search_flagsTruncated_whenAFieldHasMoreCandidatesThanRanked() {
+        // given: 3 clients matching on both name and email
+        for (int i = 0; i < 3; i++) {
+            person("Capped " + i, "capped" + i + "@test.ch");
+        }
+
+        // when
+        var capped = clientRepository.search("capped", 2, 2f, FIRST_ID, 10);
+        var complete = clientRepository.search("capped", 3, 2f, FIRST_ID, 10);
+
+        // then: more candidates than ranked per field, and exactly as many
+        assertThat(capped).extracting(ClientSearchHit::isTruncated).containsOnly(true);
+        assertThat(complete).hasSize(3).extracting(ClientSearchHit::isTruncated).containsOnly(false);
+    }
+
+    private static UUID minId(UUID a, UUID b) {
+        return PG_UUID_ORDER.compare(a, b) <= 0 ? a : b;
+    }
+
+    private static UUID maxId(UUID a, UUID b) {
+        return PG_UUID_ORDER.compare(a, b) <= 0 ? b : a;
+    }
+}
@@ -0,0 +1,119 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapperImpl;
+import ch.afdanny.technicalexercise.clientcontractapi.model.Contract;
+import ch.afdanny.technicalexercise.clientcontractapi.model.PersonClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conformance of the JSON rendered by PostgreSQL ({@link ContractJsonRepository}) with the regular path:
+ * ContractMapper + the application's Jackson ObjectMapper.
+ */
+@DataJpaTest(
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.liquibase.enabled=false"
+        }
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureJson
+@Import({TestcontainersConfiguration.class, ContractJsonRepository.class, ContractMapperImpl.class})
+class ContractJsonRepositoryTest {
+
+    @Autowired
+    private ContractJsonRepository contractJsonRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private PersonClientRepository personClientRepository;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamActiveByClient_rendersEachActiveContractLikeMapperAndJackson() throws Exception {
+        var today = LocalDate.now();
+        var client = personClientRepository.save(PersonClient.builder()
+                .name("Stream").email("stream@test.ch").phone("+41790000000")
+                .birthdate(LocalDate.of(1990, 1, 1)).build());
+        var active = new ArrayList<Contract>();
+        for (int i = 0; i < ContractJsonRepository.FETCH_SIZE + 3; i++) { // more than one fetch
+            active.add(newContract(client, today.minusDays(i % 40), i % 2 == 0 ? null : today.plusDays(i), i + ".05"));
+        }
+        newContract(client, today.minusDays(30), today, "999.99"); // ends today: not active
+        contractRepository.flush();
+
+        var rows = new ArrayList<String>();
+        contractJsonRepository.streamActiveByClient(client.getId(), today, null,
+                json -> rows.add(new String(json, StandardCharsets.UTF_8)));
+
+        assertThat(rows).hasSize(active.size()).noneMatch(r -> r.contains("\n"));
+        assertSameJson(rows, active);
+    }
+
+    @Test
+    void streamActiveByClient_withUpdatedSince_keepsRecentlyUpdatedOnly() throws Exception {
+        var today = LocalDate.now();
+        var client = personClientRepository.save(PersonClient.builder()
+                .name("Since").email("since@test.ch").phone("+41790000000")
+                .birthdate(LocalDate.of(1990, 1, 1)).build());
+        var recent = newContract(client, today.minusDays(3), null, "10");
+        newContract(client, today.minusDays(3), null, "20").setLastUpdateDate(today.minusDays(10));
+        contractRepository.flush();
+
+        var rows = new ArrayList<String>();
+        contractJsonRepository.streamActiveByClient(client.getId(), today, today.minusDays(1),
+                json -> rows.add(new String(json, StandardCharsets.UTF_8)));
+
+        assertSameJson(rows, List.of(recent));
+    }
+
+    private Contract newContract(PersonClient client, LocalDate start, LocalDate end, String cost) {
+        return contractRepository.save(Contract.builder()
+                .client(client)
+                .startDate(start)
+                .endDate(end)
+                .costAmount(new BigDecimal(cost).setScale(2)) // as read back from numeric(38, 2)
+                .build());
+    }
+
+    private void assertSameJson(List<String> rows, List<Contract> contracts) throws Exception {
+        var expected = contracts.stream()
+                .sorted(Comparator.comparing(c -> c.getId().toString()))
+                .map(contractMapper::toResponse)
+                .toList();
+        var actual = new TreeMap<String, String>(); // by id, as expected
+        for (String row : rows) {
+            actual.put(objectMapper.readTree(row).get("id").asText(), row);
+        }
+        assertThat(actual).hasSameSizeAs(expected);
+        var actualRows = List.copyOf(actual.values());
+        for (int i = 0; i < expected.size(); i++) {
+            JSONAssert.assertEquals(objectMapper.writeValueAsString(expected.get(i)), actualRows.get(i), true);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DataSource wrapper for query-plan tests: while {@link #capture} runs, every prepared statement executed
+ * through it is first explained on the same connection, with the same SQL and parameter values
+ * ({@code EXPLAIN (FORMAT JSON)}, not executed), then executed as usual.
+ */
+final class ExplainingDataSource {
+
+    private static final ThreadLocal<List<String>> PLANS = new ThreadLocal<>();
+    private static final Set<String> EXECUTE = Set.of("executeQuery", "executeUpdate", "executeLargeUpdate", "execute");
+
+    private ExplainingDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    /**
+     * Runs {@code call} and returns the JSON plans of the statements it executed on this thread, in order.
+     */
+    static List<String> capture(Runnable call) {
+        List<String> plans = new ArrayList<>();
+        PLANS.set(plans);
+        try {
+            call.run();
+        } finally {
+            PLANS.remove();
+        }
+        return plans;
+    }
+
+    private static Connection connection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                    ? statement(connection, (String) args[0], statement)
+                    : result;
+        });
+    }
+
+    private static PreparedStatement statement(Connection connection, String sql, PreparedStatement statement) {
+        // parameter setters (setObject(1, ...), setNull(2, ...)), replayed on the EXPLAIN statement
+        List<Object[]> parameters = new ArrayList<>();
+        List<Method> setters = new ArrayList<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                setters.add(method);
+                parameters.add(args);
+            } else if (name.equals("clearParameters")) {
+                setters.clear();
+                parameters.clear();
+            } else if (EXECUTE.contains(name) && (args == null || args.length == 0) && PLANS.get() != null) {
+                PLANS.get().add(explain(connection, sql, setters, parameters));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static String explain(Connection connection, String sql, List<Method> setters, List<Object[]> parameters)
+            throws Throwable {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (int i = 0; i < setters.size(); i++) {
+                invoke(explain, setters.get(i), parameters.get(i));
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                if (!plan.next()) {
+                    throw new SQLException("No plan returned for: " + sql);
+                }
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,407 @@
+package ch.afdanny.technicalexercise.clientcontractapi.repository;
+
+import ch.afdanny.technicalexercise.clientcontractapi.TestDatabases;
+import ch.afdanny.technicalexercise.clientcontractapi.analytics.CostSketch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Query-plan regression tests for every query method of {@link ContractRepository} and {@link ClientRepository},
+ * against a PostgreSQL 16 database ({@link TestDatabases}) built by the Liquibase changelog and seeded with production-like volumes
+ * (20 000 clients, 5% soft-deleted, 10 contracts each: 60% open-ended, 10% ending later, 30% ended).
+ *
+ * Each method is called once while its statements are explained ({@link ExplainingDataSource}); every plan must:
+ *  - use the expected indexes, and scan no seeded table sequentially unless the query reads all of it
+ *  - keep the shape of its baseline in src/test/resources/query-plans (same nodes, tables and indexes)
+ *  - cost at most 1.5 times the baseline, and estimate rows within a factor 4 of it
+ *
+ * After an intended plan change, rewrite the baselines with {@code -Dquery-plans.update=true} and review their diff.
+ */
+@DataJpaTest(
+        properties = {
+                "spring.liquibase.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=none",
+                // every call must reach the database
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+        }
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+
+    private static final String DATABASE = "query_plan_it";
+    private static final Path BASELINES = Path.of("src/test/resources/query-plans");
+    private static final boolean UPDATE = Boolean.getBoolean("query-plans.update");
+    private static final double COST_TOLERANCE = 1.5;
+    private static final double ROWS_TOLERANCE = 4;
+    private static final Set<String> SEEDED_TABLES = Set.of("client", "person_client", "company_client", "contract");
+
+    private static final String SEED = """
+            INSERT INTO client (id, name, email, phone, type, deleted_at)
+            SELECT md5('client-' || i)::uuid,
+                   (ARRAY['Anna','Luca','Marie','Noah','Sofia','David','Emma','Louis',
+                          'Lea','Elias','Mia','Leon','Chloe','Julien','Sara','Nicolas'])[1 + i % 16] || ' ' ||
+                   (ARRAY['Muller','Meier','Schmid','Keller','Weber','Huber','Schneider','Meyer','Steiner','Fischer',
+                          'Gerber','Brunner','Baumann','Frei','Zimmermann','Moser','Widmer','Wyss','Graf','Roth'])[1 + (i / 16) % 20],
+                   'client' || i || '@example.ch',
+                   '+4179' || lpad(i::text, 7, '0'),
+                   CASE WHEN i % 2 = 0 THEN 'PERSON' ELSE 'COMPANY' END,
+                   CASE WHEN i % 20 = 0 THEN now() - interval '30 days' END
+              FROM generate_series(1, 20000) i;
+
+            INSERT INTO person_client (id, birthdate)
+            SELECT md5('client-' || i)::uuid, date '1950-01-01' + (i * 37) % 18000
+              FROM generate_series(2, 20000, 2) i;
+
+            INSERT INTO company_client (id, company_identifier)
+            SELECT md5('client-' || i)::uuid, 'CHE-' || to_char(100000000 + i * 7919 % 900000000, 'FM000G000G000')
+              FROM generate_series(1, 20000, 2) i;
+
+            INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, last_update_date)
+            SELECT md5('contract-' || i || '-' || j)::uuid, md5('client-' || i)::uuid,
+                   CURRENT_DATE - 1500 + (i * 13 + j * 7) % 1000,
+                   CASE WHEN j <= 3 THEN CURRENT_DATE - 1 - (i * 13 + j * 7) % 450
+                        WHEN j = 4 THEN CURRENT_DATE + 1 + (i * 13 + j * 7) % 730 END,
+                   10 + (i * 31 + j * 17) % 500000 / 100.0,
+                   CURRENT_DATE - (i + j * 3) % 365
+              FROM generate_series(1, 20000) i, generate_series(1, 10) j;
+            """;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        TestDatabases.register(registry, DATABASE);
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? ExplainingDataSource.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final LocalDate today = LocalDate.now();
+    private UUID clientId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+        clientId = jdbcTemplate.queryForObject("SELECT md5('client-4242')::uuid", UUID.class);
+    }
+
+    // --- ContractRepository ---
+
+    @Test
+    void findByClientId() {
+        assertPlans("ContractRepository.findByClientId(UUID,Pageable)",
+                () -> contractRepository.findByClientId(clientId, PageRequest.of(0, 20)),
+                "idx_contract_client_end_date");
+    }
+
+    @Test
+    void findByIdAndClientId() {
+        UUID contractId = jdbcTemplate.queryForObject("SELECT id FROM contract WHERE client_id = ? LIMIT 1", UUID.class, clientId);
+        assertPlans("ContractRepository.findByIdAndClientId(UUID,UUID)",
+                () -> contractRepository.findByIdAndClientId(contractId, clientId),
+                "contract_pkey");
+    }
+
+    @Test
+    void findActiveContractsByClient() {
+        assertPlans("ContractRepository.findActiveContractsByClient(UUID,LocalDate)",
+                () -> contractRepository.findActiveContractsByClient(clientId, today),
+                "idx_contract_client_end_date");
+    }
+
+    @Test
+    void closeActiveContracts() {
+        assertPlans("ContractRepository.closeActiveContracts(UUID,LocalDate)",
+                () -> contractRepository.closeActiveContracts(clientId, today),
+                "idx_contract_client_end_date");
+    }
+
+    @Test
+    void findActiveContractsByClientUpdatedSince() {
+        assertPlans("ContractRepository.findActiveContractsByClientUpdatedSince(UUID,LocalDate,LocalDate)",
+                () -> contractRepository.findActiveContractsByClientUpdatedSince(clientId, today, today.minusDays(30)),
+                "idx_contract_client_end_date");
+    }
+
+    @Test
+    void sumActiveCostByClient() {
+        List<JsonNode> plans = assertPlans("ContractRepository.sumActiveCostByClient(UUID,LocalDate)",
+                () -> contractRepository.sumActiveCostByClient(clientId, today),
+                "idx_contract_client_end_date");
+
+        // end_date and cost_amount are in the index: the contract rows are never read
+        assertThat(plans.stream().flatMap(QueryPlanIT::nodes).filter(node -> node.has("Relation Name")))
+                .extracting(node -> node.path("Node Type").asText())
+                .containsOnly("Index Only Scan");
+    }
+
+    @Test
+    void findActiveCostsByClient() {
+        assertPlans("ContractRepository.findActiveCostsByClient(UUID,LocalDate)",
+                () -> contractRepository.findActiveCostsByClient(clientId, today),
+                "idx_contract_client_end_date");
+    }
+
+    @Test
+    void findExpiringBetween() {
+        assertPlans("ContractRepository.findExpiringBetween(LocalDate,LocalDate,Pageable)",
+                () -> contractRepository.findExpiringBetween(today, today.plusDays(30), PageRequest.of(0, 100)),
+                "idx_contract_end_date_not_null");
+    }
+
+    @Test
+    void findExpiredOn() {
+        assertPlans("ContractRepository.findExpiredOn(LocalDate)",
+                () -> contractRepository.findExpiredOn(today),
+                "idx_contract_end_date_not_null");
+    }
+
+    @Test
+    void countActiveByCostBucket() {
+        // aggregates every active contract: one (parallel) pass over the table is the right plan
+        assertPlansAllowingSeqScan("ContractRepository.countActiveByCostBucket(double,LocalDate)",
+                () -> contractRepository.countActiveByCostBucket(new CostSketch(0.01).logGamma(), today));
+    }
+
+    // --- ClientRepository ---
+
+    @Test
+    void findAllActive() {
+        // reads every live client: sequential scans are the right plan
+        assertPlansAllowingSeqScan("ClientRepository.findAllActive()", () -> clientRepository.findAllActive());
+    }
+
+    @Test
+    void findAllActive_paged() {
+        assertPlansAllowingSeqScan("ClientRepository.findAllActive(Pageable)",
+                () -> clientRepository.findAllActive(PageRequest.of(3, 20)));
+    }
+
+    @Test
+    void findActiveById() {
+        assertPlans("ClientRepository.findActiveById(UUID)",
+                () -> clientRepository.findActiveById(clientId),
+                "idx_client_live");
+    }
+
+    @Test
+    void markAsDeleted() {
+        assertPlans("ClientRepository.markAsDeleted(UUID,Instant)",
+                () -> clientRepository.markAsDeleted(clientId, Instant.now()),
+                "client_pkey");
+    }
+
+    @Test
+    void search() {
+        assertPlans("ClientRepository.search(String,int,float,UUID,int)",
+                () -> clientRepository.search("keller", 1000, 2f, new UUID(0, 0), 21),
+                "idx_client_name_trgm", "idx_client_email_trgm", "idx_company_client_identifier_trgm");
+    }
+
+    @Test
+    void findActiveOverviewJson() {
+        assertPlans("ClientRepository.findActiveOverviewJson(UUID,LocalDate)",
+                () -> clientRepository.findActiveOverviewJson(clientId, today),
+                "idx_client_live", "idx_contract_client_end_date");
+    }
+
+    @Test
+    void everyQueryMethod_hasABaseline() {
+        List<String> queries = Stream.of(ContractRepository.class, ClientRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .map(method -> repository.getSimpleName() + "." + signature(method)))
+                .toList();
+
+        assertThat(queries).allSatisfy(query -> assertThat(BASELINES.resolve(query + ".json"))
+                .as("baseline of %s: add a test to QueryPlanIT", query)
+                .exists());
+    }
+
+    private List<JsonNode> assertPlans(String query, Runnable call, String... indexes) {
+        List<JsonNode> plans = explain(query, call);
+        assertThat(plans.stream().flatMap(QueryPlanIT::nodes).filter(node -> node.path("Node Type").asText().equals("Seq Scan")))
+                .as("sequential scans of %s", query)
+                .noneMatch(node -> SEEDED_TABLES.contains(node.path("Relation Name").asText()));
+        assertThat(plans.stream().flatMap(QueryPlanIT::nodes).map(node -> node.path("Index Name").asText()))
+                .as("indexes used by %s", query)
+                .contains(indexes);
+        assertBaseline(query, plans);
+        return plans;
+    }
+
+    private void assertPlansAllowingSeqScan(String query, Runnable call) {
+        assertBaseline(query, explain(query, call));
+    }
+
+    private List<JsonNode> explain(String query, Runnable call) {
+        List<String> plans = ExplainingDataSource.capture(call);
+        assertThat(plans).as("statements of %s", query).isNotEmpty();
+        return plans.stream().<JsonNode>map(plan -> normalize(read(plan).path(0).path("Plan"))).toList();
+    }
+
+    private void assertBaseline(String query, List<JsonNode> plans) {
+        Path file = BASELINES.resolve(query + ".json");
+        ArrayNode actual = objectMapper.createArrayNode().addAll(plans);
+        if (UPDATE) {
+            write(file, actual);
+            return;
+        }
+        if (!Files.exists(file)) {
+            fail("No baseline plan for %s: run with -Dquery-plans.update=true and review %s", query, file);
+        }
+        JsonNode baseline = read(file);
+
+        assertThat(actual.size()).as("statements of %s", query).isEqualTo(baseline.size());
+        for (int i = 0; i < actual.size(); i++) {
+            JsonNode expected = baseline.get(i);
+            JsonNode plan = actual.get(i);
+            assertThat(shape(plan)).as("plan of %s (statement %d)", query, i + 1).isEqualTo(shape(expected));
+            assertThat(plan.path("Total Cost").asDouble())
+                    .as("cost of %s (statement %d)", query, i + 1)
+                    .isLessThanOrEqualTo(expected.path("Total Cost").asDouble() * COST_TOLERANCE);
+            List<JsonNode> expectedNodes = nodes(expected).toList();
+            List<JsonNode> actualNodes = nodes(plan).toList();
+            for (int n = 0; n < actualNodes.size(); n++) {
+                double rows = actualNodes.get(n).path("Plan Rows").asDouble();
+                double expectedRows = expectedNodes.get(n).path("Plan Rows").asDouble();
+                assertThat(rows)
+                        .as("estimated rows of %s at %s (statement %d)", query, describe(actualNodes.get(n)), i + 1)
+                        .isBetween(expectedRows / ROWS_TOLERANCE, expectedRows * ROWS_TOLERANCE);
+            }
+        }
+    }
+
+    /** Keeps what a baseline is checked on: node type, table, index, estimated rows and cost, children. */
+    private ObjectNode normalize(JsonNode node) {
+        ObjectNode normalized = objectMapper.createObjectNode();
+        normalized.put("Node Type", node.path("Node Type").asText());
+        for (String field : List.of("Relation Name", "Index Name")) {
+            if (node.has(field)) {
+                normalized.put(field, node.get(field).asText());
+            }
+        }
+        normalized.put("Plan Rows", node.path("Plan Rows").asLong());
+        normalized.put("Total Cost", node.path("Total Cost").asDouble());
+        if (node.has("Plans")) {
+            ArrayNode children = normalized.putArray("Plans");
+            node.get("Plans").forEach(child -> children.add(normalize(child)));
+        }
+        return normalized;
+    }
+
+    /** e.g. {@code Aggregate(Index Only Scan contract idx_contract_client_end_date)} */
+    private static String shape(JsonNode node) {
+        String children = node.has("Plans")
+                ? nodes(node.get("Plans"), false).map(QueryPlanIT::shape).collect(Collectors.joining(", ", "(", ")"))
+                : "";
+        return describe(node) + children;
+    }
+
+    private static String describe(JsonNode node) {
+        return Stream.of("Node Type", "Relation Name", "Index Name")
+                .filter(node::has)
+                .map(field -> node.get(field).asText())
+                .collect(Collectors.joining(" "));
+    }
+
+    /** The node and all its descendants, depth first. */
+    private static Stream<JsonNode> nodes(JsonNode node) {
+        return Stream.concat(Stream.of(node), nodes(node.path("Plans"), true));
+    }
+
+    private static Stream<JsonNode> nodes(JsonNode plans, boolean recursive) {
+        List<JsonNode> children = new ArrayList<>();
+        plans.forEach(children::add);
+        return recursive ? children.stream().flatMap(QueryPlanIT::nodes) : children.stream();
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode read(Path file) {
+        try {
+            return objectMapper.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(Path file, JsonNode plans) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, objectMapper.writeValueAsString(plans) + "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
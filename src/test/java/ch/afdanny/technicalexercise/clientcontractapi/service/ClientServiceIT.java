@@ -1,18 +1,35 @@
 package ch.afdanny.technicalexercise.clientcontractapi.service;
 
+import ch.afdanny.technicalexercise.clientcontractapi.dto.response.ClientOverviewResponse;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.ConflictException;
 import ch.afdanny.technicalexercise.clientcontractapi.exception.NotFoundException;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ClientMapper;
+import ch.afdanny.technicalexercise.clientcontractapi.mapper.ContractMapper;
 import ch.afdanny.technicalexercise.clientcontractapi.model.*;
 import ch.afdanny.technicalexercise.clientcontractapi.model.enums.*;
+import ch.afdanny.technicalexercise.clientcontractapi.repository.ClientRepository;
 import ch.afdanny.technicalexercise.clientcontractapi.repository.ContractRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.utility.TestcontainersConfiguration;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -24,6 +41,11 @@ import static org.assertj.core.api.Assertions.*;
  *  - Update rules (only name/email/phone)
  *  - Soft delete logic (client.deletedAt not null)
  *  - Closing of all active contracts upon delete
+ *  - Second-level cache hits and invalidation on updates / soft deletes
+ *  - Service method timers (method.timed)
+ *  - Bulkhead routing of service methods to their connection pool
+ *  - Search pages chained through their cursor
+ *  - Overview JSON rendered by PostgreSQL matches the DTOs of the separate endpoints
  */
 @SpringBootTest(
         properties = {
@@ -40,6 +62,30 @@ class ClientServiceIT {
     @Autowired
     private ContractRepository contractRepository;
 
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClientMapper clientMapper;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
     // --------------------------------------------------------------------
     // CREATE
     // --------------------------------------------------------------------
@@ -53,6 +99,22 @@ class ClientServiceIT {
         assertThat(company.getId()).isNotNull();
         assertThat(person.getType()).isEqualTo(ClientType.PERSON);
         assertThat(company.getType()).isEqualTo(ClientType.COMPANY);
+
+        // both rows of each client are in place, read back through the entity mapping
+        assertThat(service.readActive(person.getId())).isInstanceOfSatisfying(PersonClient.class,
+                p -> assertThat(p.getBirthdate()).isEqualTo(LocalDate.of(1990, 1, 1)));
+        assertThat(service.readActive(company.getId())).isInstanceOfSatisfying(CompanyClient.class,
+                c -> assertThat(c.getCompanyIdentifier()).isEqualTo("AAA-123"));
+    }
+
+    @Test
+    void createPerson_shouldThrowConflict_whenEmailAlreadyExists_andLeaveNoPartialRow() {
+        service.createPerson("First", "taken@test.ch", "+41791111111", LocalDate.of(1990, 1, 1));
+
+        assertThatThrownBy(() -> service.createPerson("Second", "taken@test.ch", "+41792222222", LocalDate.of(1991, 1, 1)))
+                .isInstanceOf(ConflictException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM client WHERE email = 'taken@test.ch'", Long.class))
+                .isEqualTo(1);
     }
 
     // --------------------------------------------------------------------
@@ -73,6 +135,30 @@ class ClientServiceIT {
         assertThat(((PersonClient) updated).getBirthdate()).isEqualTo(LocalDate.of(1985, 6, 6));
     }
 
+    @Test
+    void updateContactInfo_shouldNotLoadTheClient() {
+        var company = service.createCompany("Before SA", "before-sa@test.ch", "+41210000000", "BBB-456");
+        Statistics stats = statistics();
+        long loadsBefore = stats.getEntityLoadCount();
+        long statementsBefore = stats.getPrepareStatementCount();
+
+        var updated = service.updateContactInfo(company.getId(), "After SA", "after-sa@test.ch", "+41210000001");
+
+        assertThat(updated).isInstanceOfSatisfying(CompanyClient.class,
+                c -> assertThat(c.getCompanyIdentifier()).isEqualTo("BBB-456"));
+        assertThat(stats.getEntityLoadCount()).isEqualTo(loadsBefore);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(statementsBefore);
+    }
+
+    @Test
+    void updateContactInfo_shouldThrowNotFound_whenDeleted() {
+        var person = service.createPerson("Gone", "gone@test.ch", "+41791111111", LocalDate.of(1990, 1, 1));
+        service.deleteClient(person.getId());
+
+        assertThatThrownBy(() -> service.updateContactInfo(person.getId(), "Gone", "gone2@test.ch", "+41791111111"))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void updateContactInfo_shouldThrowConflict_whenEmailAlreadyExists() {
         var p1 = service.createPerson("A", "dup@test.ch", "+41791111111", LocalDate.of(1990, 1, 1));
@@ -127,4 +213,141 @@ class ClientServiceIT {
         assertThatThrownBy(() -> service.deleteClient(person.getId()))
                 .isInstanceOf(NotFoundException.class);
     }
-}
\ No newline at end of file
+
+    // --------------------------------------------------------------------
+    // SECOND-LEVEL CACHE
+    // --------------------------------------------------------------------
+
+    @Test
+    void readActive_shouldBeServedFromSecondLevelCache_onRepeatedReads() {
+        var person = service.createPerson("Cached", "cached@test.ch", "+41795555555", LocalDate.of(1990, 1, 1));
+        service.readActive(person.getId()); // warm-up
+
+        Statistics stats = statistics();
+        long hitsBefore = stats.getQueryCacheHitCount();
+
+        var reloaded = service.readActive(person.getId());
+
+        assertThat(reloaded).isInstanceOf(PersonClient.class);
+        assertThat(stats.getQueryCacheHitCount()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    void updateContactInfo_shouldInvalidateCachedClient() {
+        var person = service.createPerson("Before", "before@test.ch", "+41796666666", LocalDate.of(1990, 1, 1));
+        service.readActive(person.getId()); // populate cache
+
+        service.updateContactInfo(person.getId(), "After", "after@test.ch", "+41796666666");
+
+        assertThat(service.readActive(person.getId()).getName()).isEqualTo("After");
+    }
+
+    @Test
+    void bulkMarkAsDeleted_shouldInvalidateCachedActiveLookup() {
+        var person = service.createPerson("Bulk", "bulk@test.ch", "+41797777777", LocalDate.of(1990, 1, 1));
+        service.readActive(person.getId()); // populate entity + query cache
+
+        transactionTemplate.executeWithoutResult(tx -> clientRepository.markAsDeleted(person.getId(), Instant.now()));
+
+        assertThatThrownBy(() -> service.readActive(person.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    // --------------------------------------------------------------------
+    // SEARCH
+    // --------------------------------------------------------------------
+
+    @Test
+    void search_shouldReturnEveryMatchOnce_acrossCursorPages() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm"); // Liquibase changelog-002 outside of tests
+        var expected = new HashSet<UUID>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(service.createPerson("Searchable " + i, "searchable" + i + "@test.ch", "+41790000000",
+                    LocalDate.of(1990, 1, 1)).getId());
+        }
+
+        var found = new ArrayList<UUID>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = service.search("  SEARCHABLE ", cursor, 2);
+            page.clients().forEach(c -> found.add(c.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    // --------------------------------------------------------------------
+    // OVERVIEW
+    // --------------------------------------------------------------------
+
+    @Test
+    void readActiveOverviewJson_shouldMatchTheSeparateEndpoints() throws Exception {
+        var person = service.createPerson("Overview", "overview@test.ch", "+41796666000", LocalDate.of(1975, 7, 7));
+        var contracts = contractRepository.saveAll(List.of(
+                Contract.builder().client(person).startDate(LocalDate.now().minusDays(30))
+                        .costAmount(new BigDecimal("100.50")).build(),
+                Contract.builder().client(person).startDate(LocalDate.now().minusDays(20))
+                        .endDate(LocalDate.now().plusDays(5)).costAmount(new BigDecimal("20.00")).build(),
+                Contract.builder().client(person).startDate(LocalDate.now().minusDays(10))
+                        .endDate(LocalDate.now()).costAmount(new BigDecimal("999.00")).build()));
+        try {
+            // same DTOs, serialized the way the separate endpoints do
+            var expected = new ClientOverviewResponse(
+                    clientMapper.toPersonResponse(person),
+                    contracts.subList(0, 2).stream().map(contractMapper::toResponse).toList(),
+                    new BigDecimal("120.50"));
+
+            JSONAssert.assertEquals(objectMapper.writeValueAsString(expected),
+                    service.readActiveOverviewJson(person.getId()), true);
+        } finally {
+            contractRepository.deleteAll(contracts);
+        }
+
+        service.deleteClient(person.getId());
+        assertThatThrownBy(() -> service.readActiveOverviewJson(person.getId())).isInstanceOf(NotFoundException.class);
+    }
+
+    // --------------------------------------------------------------------
+    // METRICS
+    // --------------------------------------------------------------------
+
+    @Test
+    void serviceCalls_shouldBeTimedPerMethod() {
+        var person = service.createPerson("Timed", "timed@test.ch", "+41798888888", LocalDate.of(1990, 1, 1));
+        service.readActive(person.getId());
+
+        var timer = meterRegistry.find("method.timed")
+                .tag("class", ClientService.class.getName())
+                .tag("method", "readActive")
+                .timer();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+    }
+
+    @Test
+    void deleteClient_shouldRunOnOltpPool_notOnBulkPool() {
+        var person = service.createPerson("Pooled", "pooled@test.ch", "+41797777000", LocalDate.of(1985, 5, 5));
+        long bulkBefore = connectionsUsed("bulk");
+        long oltpBefore = connectionsUsed("oltp");
+
+        service.deleteClient(person.getId());
+        assertThat(connectionsUsed("oltp")).isEqualTo(oltpBefore + 1);
+        assertThat(connectionsUsed("bulk")).isEqualTo(bulkBefore);
+
+        assertThatThrownBy(() -> service.readActive(person.getId())).isInstanceOf(NotFoundException.class);
+    }
+
+    private long connectionsUsed(String pool) {
+        var usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
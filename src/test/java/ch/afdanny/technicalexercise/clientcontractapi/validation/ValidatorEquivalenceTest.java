@@ -0,0 +1,124 @@
+package ch.afdanny.technicalexercise.clientcontractapi.validation;
+
+import ch.afdanny.technicalexercise.clientcontractapi.dto.request.UpdateClientRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import org.hibernate.validator.internal.constraintvalidators.bv.EmailValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based equivalence of the regex-free validators with the constraints they replace:
+ * seeded random inputs (valid shapes, mutations, boundaries, non-ASCII) must get the same verdict.
+ */
+class ValidatorEquivalenceTest {
+
+    private static final int RUNS = 200_000;
+
+    private final Random random = new Random(20251019);
+
+    @Test
+    @DisplayName("PhoneValidator == @Pattern(^\\+?[0-9]{8,15}$)")
+    void phone_matchesRegex() {
+        var regex = Pattern.compile("^\\+?[0-9]{8,15}$");
+        var validator = new PhoneValidator();
+
+        assertEquivalent(this::phoneCandidate, v -> regex.matcher(v).matches(), v -> validator.isValid(v, null));
+        assertThat(validator.isValid(null, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("CompanyIdentifierValidator == @Pattern(^[A-Za-z]{3}-\\d{3}$)")
+    void companyIdentifier_matchesRegex() {
+        var regex = Pattern.compile("^[A-Za-z]{3}-\\d{3}$");
+        var validator = new CompanyIdentifierValidator();
+
+        assertEquivalent(this::companyIdentifierCandidate, v -> regex.matcher(v).matches(), v -> validator.isValid(v, null));
+        assertThat(validator.isValid(null, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("@Email keeps Hibernate Validator's own validator")
+    void email_isValidatedByHibernateValidator() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            var constraints = factory.getValidator()
+                    .getConstraintsForClass(UpdateClientRequest.class)
+                    .getConstraintsForProperty("email")
+                    .getConstraintDescriptors();
+
+            assertThat(constraints)
+                    .filteredOn(c -> c.getAnnotation() instanceof Email)
+                    .singleElement()
+                    .extracting(ConstraintDescriptor::getConstraintValidatorClasses)
+                    .isEqualTo(List.of(EmailValidator.class));
+            assertThat(factory.getValidator().validate(new UpdateClientRequest("Alice", "not-an-email", "+41791234567")))
+                    .extracting(v -> v.getPropertyPath().toString())
+                    .containsExactly("email");
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Generators: mostly well-formed values, then mutated
+    // ---------------------------------------------------------------------
+
+    private String phoneCandidate() {
+        var sb = new StringBuilder();
+        if (random.nextBoolean()) sb.append('+');
+        sb.append(repeat("0123456789", 5 + random.nextInt(14)));
+        return mutate(sb, "+0123456789 -x٣\n");
+    }
+
+    private String companyIdentifierCandidate() {
+        var sb = new StringBuilder()
+                .append(repeat("abcXYZ", 2 + random.nextInt(3)))
+                .append('-')
+                .append(repeat("0123456789", 2 + random.nextInt(3)));
+        return mutate(sb, "aZ-_09é٣ \n");
+    }
+
+    private String repeat(String alphabet, int length) {
+        var sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+
+    /**
+     * Half of the values are returned as is; the others get a random insert, delete or replace.
+     */
+    private String mutate(StringBuilder sb, String alphabet) {
+        int mutations = random.nextBoolean() ? 0 : 1 + random.nextInt(2);
+        for (int m = 0; m < mutations; m++) {
+            int pos = sb.isEmpty() ? 0 : random.nextInt(sb.length());
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(pos, c);
+                case 1 -> { if (!sb.isEmpty()) sb.deleteCharAt(pos); }
+                default -> { if (!sb.isEmpty()) sb.setCharAt(pos, c); }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void assertEquivalent(Supplier<String> candidates, Predicate<String> expected, Predicate<String> actual) {
+        int accepted = 0;
+        for (int i = 0; i < RUNS; i++) {
+            String value = candidates.get();
+            boolean verdict = expected.test(value);
+            assertThat(actual.test(value)).as("'%s'", value).isEqualTo(verdict);
+            if (verdict) accepted++;
+        }
+        // the generators must exercise both outcomes
+        assertThat(accepted).isBetween(RUNS / 20, RUNS - RUNS / 20);
+    }
+
+}